@@ -1,13 +1,17 @@
 package com.example.dd.nameSorter;
 
+import com.example.dd.nameSorter.service.CheckpointedSortJobService;
 import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import com.example.dd.nameSorter.service.SortedFileMergeService;
+import com.example.dd.nameSorter.service.SpoolDirectoryWatchService;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +19,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
@@ -27,45 +33,159 @@ public class CommandLineApplication {
 
     private static final int OUTPUT_FILE_ARG_POS = 2;
 
+    private static final String MERGE_MODE = "merge";
+
+    private static final int MIN_MERGE_ARGS = 2;
+
+    private static final String WATCH_MODE = "watch";
+
+    private static final String JOB_MODE = "job";
+
+    private static final String STANDARD_STREAM = FileContentSortingEvaluationService.STANDARD_STREAM;
+
     @Autowired
     private FileContentSortingEvaluationService fileContentSortingEvaluationService;
 
+    @Autowired
+    private SortedFileMergeService sortedFileMergeService;
+
+    @Autowired
+    private SpoolDirectoryWatchService spoolDirectoryWatchService;
+
+    @Autowired
+    private CheckpointedSortJobService checkpointedSortJobService;
+
+    @Value("${app.mode:sort}")
+    private String mode;
+
     @Value("${app.input.file}")
     private String inputFilePath;
 
     @Value("${app.output.file}")
     private String outputFilePath;
 
+    @Value("${app.job.id:}")
+    private String jobId;
+
     public static void main(String[] args) {
-        SpringApplication.run(CommandLineApplication.class, args);
+        final SpringApplication application = new SpringApplication(CommandLineApplication.class);
+        application.addListeners(new StandardOutputRedirect(args));
+        application.run(args);
+    }
+
+    /**
+     * Tells whether the sorted names go to standard output: the output path is the second path argument,
+     * or else the configured {@code app.output.file}.
+     * @param args the command line arguments
+     * @param configuredOutputFilePath the resolved {@code app.output.file} property, may be null
+     * @return true if the output path is "-"
+     */
+    public static boolean writesToStandardOutput(String[] args, String configuredOutputFilePath) {
+        final String[] paths = pathArguments(args);
+        return STANDARD_STREAM.equals(paths.length >= OUTPUT_FILE_ARG_POS ? paths[OUTPUT_FILE_ARG_POS - 1] : configuredOutputFilePath);
+    }
+
+    /**
+     * When the sorted names go to standard output, sends the banner, console logs and the name echo to standard error.
+     * Runs once Spring has resolved the environment, before the banner is printed, such that the output path
+     * is resolved from the same property sources, profiles and relaxed names as the application.
+     */
+    private static final class StandardOutputRedirect implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+        private final String[] args;
+
+        private StandardOutputRedirect(String[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            if (writesToStandardOutput(args, event.getEnvironment().getProperty("app.output.file"))) {
+                System.setOut(System.err);
+            }
+        }
+    }
+
+    /**
+     * @return the arguments that are not option arguments (--name=value)
+     */
+    private static String[] pathArguments(String[] args) {
+        return Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toArray(String[]::new);
+    }
+
+    public CommandLineApplication() {
+        // created by Spring, which injects the fields
+    }
+
+    /**
+     * Wires the application without a Spring context, see {@link LeanCommandLineApplication}.
+     * Services not used by the mode may be null.
+     */
+    CommandLineApplication(FileContentSortingEvaluationService fileContentSortingEvaluationService,
+                           SortedFileMergeService sortedFileMergeService,
+                           SpoolDirectoryWatchService spoolDirectoryWatchService,
+                           CheckpointedSortJobService checkpointedSortJobService,
+                           String mode, String inputFilePath, String outputFilePath, String jobId) {
+        this.fileContentSortingEvaluationService = fileContentSortingEvaluationService;
+        this.sortedFileMergeService = sortedFileMergeService;
+        this.spoolDirectoryWatchService = spoolDirectoryWatchService;
+        this.checkpointedSortJobService = checkpointedSortJobService;
+        this.mode = mode;
+        this.inputFilePath = inputFilePath;
+        this.outputFilePath = outputFilePath;
+        this.jobId = jobId;
     }
 
     @Bean
     public CommandLineRunner commandLineRunner(ApplicationContext ctx) {
-        return args -> {
+        return this::run;
+    }
 
-            logger.info("Running Name-Sorter CommandLineRunner... Started");
+    /**
+     * Runs the configured mode; option arguments (--name=value) must already be bound to the fields.
+     */
+    void run(String... args) {
 
-            // override application configured file paths with command line arguments
-            if (args.length >= INPUT_FILE_ARG_POS) {
-                inputFilePath = args[0];
-                logger.info("Input file path: {}", args[0]);
-            }
+        logger.info("Running Name-Sorter CommandLineRunner... Started");
 
-            if (args.length >= OUTPUT_FILE_ARG_POS) {
-                outputFilePath = args[1];
-                logger.info("Output file path: {}", args[1]);
-            }
+        // option arguments (--name=value) are already bound to application properties by Spring, or by the lean launcher
+        final String[] paths = pathArguments(args);
 
-            // safety check in case application.yml is corrupted
-            if (inputFilePath == null || outputFilePath == null) {
-                logger.error("Input and output file paths must be provided either as command line arguments or application properties.");
-                return;
-            }
+        if (MERGE_MODE.equals(mode)) {
+            runMerge(paths);
+            logger.info("Running Name-Sorter CommandLineRunner... Ended");
+            return;
+        }
+
+        if (WATCH_MODE.equals(mode)) {
+            // blocks until shutdown, sorting every file completed in app.watch.input-dir
+            spoolDirectoryWatchService.watch();
+            logger.info("Running Name-Sorter CommandLineRunner... Ended");
+            return;
+        }
+
+        // override application configured file paths with command line arguments
+        if (paths.length >= INPUT_FILE_ARG_POS) {
+            inputFilePath = paths[0];
+            logger.info("Input file path: {}", paths[0]);
+        }
 
-            // validate input and output file path structure and existence
-            try {
-                logger.info("Resolved Input file path: {}", inputFilePath);
+        if (paths.length >= OUTPUT_FILE_ARG_POS) {
+            outputFilePath = paths[1];
+            logger.info("Output file path: {}", paths[1]);
+        }
+
+        // safety check in case application.yml is corrupted
+        if (inputFilePath == null || outputFilePath == null) {
+            logger.error("Input and output file paths must be provided either as command line arguments or application properties.");
+            return;
+        }
+
+        // validate input and output file path structure and existence; "-" stands for standard input / output
+        try {
+            logger.info("Resolved Input file path: {}", inputFilePath);
+
+            if (!STANDARD_STREAM.equals(inputFilePath)) {
                 final Path inputPath = Paths.get(inputFilePath);
 
                 if (!Files.exists(inputPath)) {
@@ -77,9 +197,12 @@ public class CommandLineApplication {
                     logger.error("Input path is not a Readable file: {}", inputFilePath);
                     return;
                 }
+            }
 
+            logger.info("Resolved Output file path: {}", outputFilePath);
+
+            if (!STANDARD_STREAM.equals(outputFilePath)) {
                 try {
-                    logger.info("Resolved Output file path: {}", outputFilePath);
                     final Path outputPath = Paths.get(outputFilePath);
 
                     if (outputPath.getParent() != null) {
@@ -88,27 +211,95 @@ public class CommandLineApplication {
                             Files.createDirectory(outputPath.getParent());
                         }
                     }else {
-                        // test if output file is writable in advance
-                        Files.write(outputPath, "".getBytes(),
-                            StandardOpenOption.CREATE,
-                            StandardOpenOption.WRITE);
+                        // test if output file is writable in advance, without creating it: sharded output never writes it
+                        final boolean writable = Files.exists(outputPath)
+                            ? Files.isRegularFile(outputPath) && Files.isWritable(outputPath)
+                            : Files.isWritable(outputPath.toAbsolutePath().getParent());
+                        if (!writable) {
+                            logger.error("Output path is not writable: {}", outputFilePath);
+                            return;
+                        }
                     }
                 }catch (IOException e) {
                     logger.error("Output path is not writable: {}; Error: {}", outputFilePath, e.getMessage());
                     return;
                 }
+            }
+
+        } catch (InvalidPathException e) {
+            logger.error("Structural path error: {}", e.getMessage());
+            return;
 
-            } catch (InvalidPathException e) {
-                logger.error("Structural path error: {}", e.getMessage());
-                return;
+        }
 
+        if (JOB_MODE.equals(mode)) {
+            runJob();
+            logger.info("Running Name-Sorter CommandLineRunner... Ended");
+            return;
+        }
+
+        // core logic
+        fileContentSortingEvaluationService.sortNamesInFile(inputFilePath, outputFilePath);
+
+        logger.info("Running Name-Sorter CommandLineRunner... Ended");
+    }
+
+    /**
+     * Sorts the input file as a resumable job: rerunning with the same app.job.id resumes from its last checkpoint.
+     */
+    private void runJob() {
+
+        if (jobId == null || jobId.isBlank()) {
+            logger.error("Job mode expects a job id, e.g. --app.job.id=nightly-2024-05-01");
+            return;
+        }
+
+        if (STANDARD_STREAM.equals(inputFilePath) || STANDARD_STREAM.equals(outputFilePath)) {
+            logger.error("Job mode cannot resume standard input or output, use files instead.");
+            return;
+        }
+
+        logger.info("Running sort job: {}", jobId);
+        checkpointedSortJobService.sortJob(jobId, inputFilePath, outputFilePath);
+    }
+
+    /**
+     * Merges already sorted files: all arguments but the last are the input files, the last one is the output file.
+     */
+    private void runMerge(String[] paths) {
+
+        if (paths.length < MIN_MERGE_ARGS) {
+            logger.error("Merge mode expects one or more sorted input files followed by the output file.");
+            return;
+        }
+
+        final List<String> inputFilePaths = Arrays.asList(paths).subList(0, paths.length - 1);
+        final String mergedFilePath = paths[paths.length - 1];
+
+        try {
+            for (String inputFile : inputFilePaths) {
+                final Path inputPath = Paths.get(inputFile);
+                if (!Files.isRegularFile(inputPath) || !Files.isReadable(inputPath)) {
+                    logger.error("Input path is not a Readable file: {}", inputFile);
+                    return;
+                }
             }
 
-            // core logic
-            fileContentSortingEvaluationService.sortNamesInFile(inputFilePath, outputFilePath);
+            final Path outputPath = Paths.get(mergedFilePath);
+            if (outputPath.getParent() != null && !Files.exists(outputPath.getParent())) {
+                Files.createDirectories(outputPath.getParent());
+            }
 
-            logger.info("Running Name-Sorter CommandLineRunner... Ended");
+        } catch (InvalidPathException e) {
+            logger.error("Structural path error: {}", e.getMessage());
+            return;
+
+        } catch (IOException e) {
+            logger.error("Output path is not writable: {}; Error: {}", mergedFilePath, e.getMessage());
+            return;
+        }
 
-        };
+        logger.info("Merging {} sorted files into: {}", inputFilePaths.size(), mergedFilePath);
+        sortedFileMergeService.mergeSortedFiles(inputFilePaths, mergedFilePath);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,322 @@
+package com.example.dd.nameSorter;
+
+import com.example.dd.nameSorter.service.AdaptiveNameSortingService;
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.BurstTrieNameSortingService;
+import com.example.dd.nameSorter.service.CheckpointedSortJobService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.ConcurrentSkipListNameSortingService;
+import com.example.dd.nameSorter.service.DictionaryEncodedNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import com.example.dd.nameSorter.service.RangePartitionedNameSortingService;
+import com.example.dd.nameSorter.service.SortedFileMergeService;
+import com.example.dd.nameSorter.service.SpoolDirectoryWatchService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Fast-start entry point for small files, where starting Spring Boot takes most of the wall time.
+ * Runs the same modes as {@link CommandLineApplication} with the same arguments and {@code application.yml} properties,
+ * but without a Spring context: the services are created with {@code new} from {@code app.service.type} and configured
+ * through their setters, so there is no component scanning, auto-configuration or reflection before the first name is read.
+ * Properties are resolved like Spring Boot does, from highest to lowest precedence: {@code --name=value} arguments,
+ * JVM system properties, environment variables (e.g. {@code APP_SERVICE_TYPE}), {@code config/application.yml} and
+ * {@code application.yml} in the working directory, and {@code application.yml} on the classpath.
+ * The defaults are those of the classpath {@code application.yml}, so they cannot drift from the Spring launcher's.
+ * Logging is configured by logback itself on the first logger lookup, from {@code logback-lean.xml} and the
+ * {@code logging.*} properties, instead of by Spring's logging system.
+ */
+public final class LeanCommandLineApplication {
+
+    private static final String CONFIG_FILE = "application.yml";
+
+    private static final String LOGBACK_CONFIG = "logback-lean.xml";
+
+    private static final String LOGBACK_CONFIG_PROPERTY = "logback.configurationFile";
+
+    private static final String AUTO = "auto";
+
+    private final String[] args;
+
+    private final Settings settings;
+
+    private LeanCommandLineApplication(String[] args, Settings settings) {
+        this.args = args;
+        this.settings = settings;
+    }
+
+    /**
+     * Creates the launcher on the given environment and configuration files instead of those of the process, e.g. in tests.
+     * JVM system properties still apply, between the arguments and the environment variables.
+     * @param args the command line arguments
+     * @param environment the environment variables, by name (e.g. {@code APP_SERVICE_TYPE})
+     * @param configFiles the flattened properties of the configuration files, e.g. from {@link #loadConfigFiles()}
+     * @return the launcher, to be {@link #run()}
+     */
+    public static LeanCommandLineApplication of(String[] args, Map<String, String> environment, Map<String, String> configFiles) {
+        return new LeanCommandLineApplication(args, new Settings(Settings.parseArguments(args), environment, configFiles));
+    }
+
+    public static void main(String[] args) {
+        final LeanCommandLineApplication application = of(args, System.getenv(), loadConfigFiles());
+        if (CommandLineApplication.writesToStandardOutput(args, application.settings.get("app.output.file"))) {
+            // standard output carries the sorted names: send console logs and the name echo to standard error
+            System.setOut(System.err);
+        }
+
+        // no logger is touched before this, so logback picks up the settings when the services are created
+        if (System.getProperty(LOGBACK_CONFIG_PROPERTY) == null) {
+            application.loggingProperties().forEach(System::setProperty);
+        }
+        application.run();
+    }
+
+    /**
+     * Runs the configured mode with the arguments, as {@link CommandLineApplication} does once Spring has started.
+     * @throws IllegalArgumentException if {@code app.service.type} names no sorting service
+     * @throws IllegalStateException if a property has no value, not even a default in {@code application.yml}
+     */
+    public void run() {
+        newApplication(settings).run(args);
+    }
+
+    /**
+     * @return the system properties passing the logging settings to {@code logback-lean.xml},
+     * which {@link #main} sets unless logback is configured explicitly
+     */
+    public Map<String, String> loggingProperties() {
+        final Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("LOG_FILE", settings.get("logging.file.name"));
+        properties.put("LOG_FILE_MAX_SIZE", settings.get("logging.file.max-size"));
+        properties.put("LOG_FILE_MAX_HISTORY", settings.get("logging.rollingpolicy.max-history"));
+        properties.put("LOG_FILE_TOTAL_SIZE_CAP", settings.get("logging.rollingpolicy.total-size-cap"));
+        properties.put("LOG_LEVEL_APP", settings.get("logging.level.com.example.dd.nameSorter"));
+        properties.put(LOGBACK_CONFIG_PROPERTY, LOGBACK_CONFIG);
+        return properties;
+    }
+
+    /**
+     * @return the properties of the classpath {@code application.yml}, overridden by those of the working directory
+     */
+    public static Map<String, String> loadConfigFiles() {
+
+        // later files override earlier ones
+        final Map<String, String> configFiles = new HashMap<>();
+        try (InputStream classpathConfig = LeanCommandLineApplication.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (classpathConfig != null) {
+                flatten("", new Yaml().load(classpathConfig), configFiles);
+            }
+            for (Path fileConfig : List.of(Paths.get(CONFIG_FILE), Paths.get("config", CONFIG_FILE))) {
+                if (Files.isRegularFile(fileConfig)) {
+                    try (InputStream input = Files.newInputStream(fileConfig)) {
+                        flatten("", new Yaml().load(input), configFiles);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + CONFIG_FILE, e);
+        }
+        return configFiles;
+    }
+
+    /**
+     * Flattens nested YAML maps into dotted keys, e.g. {@code app: {service: {type: x}}} into {@code app.service.type=x}.
+     */
+    private static void flatten(String prefix, Object value, Map<String, String> properties) {
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((key, child) -> flatten(prefix.isEmpty() ? String.valueOf(key) : prefix + "." + key, child, properties));
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                flatten(prefix + "[" + i + "]", list.get(i), properties);
+            }
+        } else if (!prefix.isEmpty()) {
+            properties.put(prefix, value == null ? "" : String.valueOf(value));
+        }
+    }
+
+    /**
+     * Creates the services the configured mode needs, configured as Spring would inject them.
+     */
+    private static CommandLineApplication newApplication(Settings settings) {
+
+        final String mode = settings.get("app.mode");
+        FileContentSortingEvaluationService sortingService = null;
+        SortedFileMergeService mergeService = null;
+        SpoolDirectoryWatchService watchService = null;
+        CheckpointedSortJobService jobService = null;
+
+        switch (mode) {
+            case "merge" -> mergeService = newMergeService(settings);
+            case "job" -> jobService = newJobService(settings);
+            case "watch" -> {
+                sortingService = newSortingService(settings);
+                watchService = newWatchService(settings, sortingService);
+                final SpoolDirectoryWatchService stoppedOnExit = watchService;
+                Runtime.getRuntime().addShutdownHook(new Thread(stoppedOnExit::stop, "watch-shutdown"));
+            }
+            default -> sortingService = newSortingService(settings);
+        }
+
+        return new CommandLineApplication(sortingService, mergeService, watchService, jobService, mode,
+            settings.get("app.input.file"), settings.get("app.output.file"), settings.get("app.job.id"));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code app.service.type} names no sorting service
+     */
+    private static FileContentSortingEvaluationService newSortingService(Settings settings) {
+
+        final String type = settings.get("app.service.type");
+        final int partitions = settings.getInt("app.service.partitions");
+        final int parserThreads = settings.getInt("app.service.parser-threads");
+
+        final FileContentSortingEvaluationService service = switch (type) {
+            case AdaptiveNameSortingService.BINARY_TREE -> new BinaryTreeNameSortingService();
+            case AdaptiveNameSortingService.COLLECTION -> new CollectionNameSortingService();
+            case AdaptiveNameSortingService.DICTIONARY -> new DictionaryEncodedNameSortingService();
+            case AdaptiveNameSortingService.BURST_TRIE -> new BurstTrieNameSortingService();
+            case AdaptiveNameSortingService.RANGE_PARTITIONED -> {
+                final RangePartitionedNameSortingService rangePartitioned = new RangePartitionedNameSortingService();
+                rangePartitioned.setPartitions(partitions);
+                yield rangePartitioned;
+            }
+            case AdaptiveNameSortingService.CONCURRENT -> {
+                final ConcurrentSkipListNameSortingService concurrent = new ConcurrentSkipListNameSortingService();
+                concurrent.setParserThreads(parserThreads);
+                yield concurrent;
+            }
+            case AUTO -> {
+                final AdaptiveNameSortingService adaptive = new AdaptiveNameSortingService();
+                adaptive.setEngineOverride(settings.get("app.service.auto.engine"));
+                adaptive.setPartitions(partitions);
+                adaptive.setParserThreads(parserThreads);
+                yield adaptive;
+            }
+            default -> throw new IllegalArgumentException("Unknown app.service.type: " + type);
+        };
+
+        service.setRejectedRecordsDir(settings.get("app.rejected.dir"));
+        service.setRowDelimiter(settings.get("app.rows.delimiter"));
+        service.setNameColumn(settings.getInt("app.rows.name-column"));
+        service.setHeaderRow(settings.getBoolean("app.rows.header"));
+        service.setOutputShards(settings.getInt("app.output.shards"));
+        service.setShardBy(settings.get("app.output.shard-by"));
+        service.setProgressIntervalMillis(settings.getLong("app.progress.interval-millis"));
+        return service;
+    }
+
+    private static SortedFileMergeService newMergeService(Settings settings) {
+        final SortedFileMergeService service = new SortedFileMergeService();
+        service.setMaxOpenFiles(settings.getInt("app.merge.max-open-files"));
+        service.setVerifySorted(settings.getBoolean("app.merge.verify-sorted"));
+        service.setBufferSize(settings.getInt("app.merge.buffer-size"));
+        service.setRejectedRecordsDir(settings.get("app.rejected.dir"));
+        return service;
+    }
+
+    private static SpoolDirectoryWatchService newWatchService(Settings settings, FileContentSortingEvaluationService sortingService) {
+        final SpoolDirectoryWatchService service = new SpoolDirectoryWatchService();
+        service.setFileContentSortingEvaluationService(sortingService);
+        service.setInputDir(settings.get("app.watch.input-dir"));
+        service.setOutputDir(settings.get("app.watch.output-dir"));
+        service.setWorkers(settings.getInt("app.watch.workers"));
+        service.setQueueCapacity(settings.getInt("app.watch.queue-capacity"));
+        service.setStableMillis(settings.getLong("app.watch.stable-millis"));
+        service.setMarkerSuffix(settings.get("app.watch.marker-suffix"));
+        return service;
+    }
+
+    private static CheckpointedSortJobService newJobService(Settings settings) {
+        final CheckpointedSortJobService service = new CheckpointedSortJobService();
+        service.setWorkDir(settings.get("app.job.work-dir"));
+        service.setRunSize(settings.getInt("app.job.run-size"));
+        service.setCheckpointEvery(settings.getLong("app.job.checkpoint-every"));
+        service.setMaxOpenFiles(settings.getInt("app.merge.max-open-files"));
+        return service;
+    }
+
+    /**
+     * Application properties, resolved in Spring Boot's order of precedence.
+     */
+    private static final class Settings {
+
+        private final Map<String, String> arguments;
+
+        private final Map<String, String> environment;
+
+        private final Map<String, String> configFiles;
+
+        Settings(Map<String, String> arguments, Map<String, String> environment, Map<String, String> configFiles) {
+            this.arguments = arguments;
+            this.environment = environment;
+            this.configFiles = configFiles;
+        }
+
+        /**
+         * @return the option arguments ({@code --name=value}) by name; a bare {@code --name} has an empty value
+         */
+        static Map<String, String> parseArguments(String[] args) {
+            final Map<String, String> arguments = new HashMap<>();
+            for (String arg : args) {
+                if (arg.startsWith("--")) {
+                    final int separator = arg.indexOf('=');
+                    arguments.put(separator < 0 ? arg.substring(2) : arg.substring(2, separator),
+                        separator < 0 ? "" : arg.substring(separator + 1));
+                }
+            }
+            return arguments;
+        }
+
+        /**
+         * @return the value of the property, or the default value if it is not set anywhere
+         */
+        String get(String key, String defaultValue) {
+            String value = arguments.get(key);
+            if (value == null) {
+                value = System.getProperty(key);
+            }
+            if (value == null) {
+                // environment variables use Spring's relaxed names: app.job.run-size is APP_JOB_RUNSIZE
+                value = environment.get(key.replace('.', '_').replace("-", "").toUpperCase(Locale.ROOT));
+            }
+            if (value == null) {
+                value = configFiles.get(key);
+            }
+            return value == null ? defaultValue : value;
+        }
+
+        /**
+         * @return the value of the property, which {@code application.yml} sets by default
+         * @throws IllegalStateException if the property is not set anywhere
+         */
+        String get(String key) {
+            final String value = get(key, null);
+            if (value == null) {
+                throw new IllegalStateException("Property " + key + " is not set, expected a default in " + CONFIG_FILE);
+            }
+            return value;
+        }
+
+        int getInt(String key) {
+            return Integer.parseInt(get(key).trim());
+        }
+
+        long getLong(String key) {
+            return Long.parseLong(get(key).trim());
+        }
+
+        boolean getBoolean(String key) {
+            return Boolean.parseBoolean(get(key).trim());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.dd.nameSorter.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Burst trie of names keyed by case-folded surname, for surnames sharing long prefixes (Mac-, Mc-, Van-, ...).
+ * Trie nodes branch on one surname character each, so a shared prefix is stored and compared once per path
+ * instead of once per name. Below the nodes, names are appended to small unsorted buckets; a bucket that grows
+ * beyond {@link #BURST_THRESHOLD} names bursts into a new node with one bucket per next character.
+ * Names whose surname ends at a node share one bucket and one surname string (when equal including case):
+ * the bucket keeps a copy of a name with the surname string of an earlier name, so repeated surnames are stored once
+ * and the names added are never changed. Buckets are sorted only when walked, by the rest of the surname and then
+ * the given name, and the in-order walk yields the names in {@link Name#compareTo} order.
+ * Names comparing equal keep their insertion order.
+ */
+public class BurstTrie {
+
+    static final int BURST_THRESHOLD = 64;
+
+    private static final int DIRECT_CHILDREN = 128; // ASCII characters are indexed directly, others go to a sorted map
+
+    private final TrieNode root = new TrieNode();
+
+    private int size;
+
+    public BurstTrie() {}
+
+    public void add(Name name) {
+
+        final String surname = name.getLastName();
+        TrieNode node = root;
+        int depth = 0;
+
+        while (true) {
+            if (depth == surname.length()) {
+                node.endOfSurname().addSameSurname(name);
+                break;
+            }
+
+            final char key = fold(surname.charAt(depth));
+            final Object child = node.child(key);
+            if (child instanceof TrieNode trieNode) {
+                node = trieNode;
+                depth++;
+                continue;
+            }
+
+            Bucket bucket = (Bucket) child;
+            if (bucket == null) {
+                bucket = new Bucket(depth + 1);
+                node.setChild(key, bucket);
+            }
+            bucket.add(name);
+            if (bucket.size > BURST_THRESHOLD) {
+                node.setChild(key, bucket.burst());
+            }
+            break;
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Walks the trie in order, sorting each bucket on the way.
+     * @return the names in {@link Name#compareTo} order
+     */
+    public List<Name> sortedNames() {
+        final List<Name> names = new ArrayList<>(size);
+        walk(root, names);
+        return names;
+    }
+
+    private static void walk(TrieNode node, List<Name> names) {
+
+        // a surname ending here sorts before every longer surname with this prefix
+        if (node.endOfSurname != null) {
+            node.endOfSurname.sortAndAppendTo(names);
+        }
+        for (Object child : node.children) {
+            walkChild(child, names);
+        }
+        if (node.wideChildren != null) {
+            for (Object child : node.wideChildren.values()) {
+                walkChild(child, names);
+            }
+        }
+    }
+
+    private static void walkChild(Object child, List<Name> names) {
+        if (child instanceof TrieNode trieNode) {
+            walk(trieNode, names);
+        } else if (child != null) {
+            ((Bucket) child).sortAndAppendTo(names);
+        }
+    }
+
+    /**
+     * Folds a character the way {@link String#compareToIgnoreCase} compares it, such that ordering by folded characters
+     * is ordering ignoring case.
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Compares two surnames from the given position on, ignoring case.
+     */
+    static int compareSurnamesFrom(String surname, String other, int depth) {
+        final int length = Math.min(surname.length(), other.length());
+        for (int i = depth; i < length; i++) {
+            final char c = fold(surname.charAt(i));
+            final char o = fold(other.charAt(i));
+            if (c != o) {
+                return c - o;
+            }
+        }
+        return surname.length() - other.length();
+    }
+
+    private static final class TrieNode {
+
+        private final Object[] children = new Object[DIRECT_CHILDREN]; // TrieNode or Bucket, by folded character
+
+        private Map<Character, Object> wideChildren;
+
+        private Bucket endOfSurname;
+
+        Object child(char key) {
+            if (key < DIRECT_CHILDREN) {
+                return children[key];
+            }
+            return wideChildren == null ? null : wideChildren.get(key);
+        }
+
+        void setChild(char key, Object child) {
+            if (key < DIRECT_CHILDREN) {
+                children[key] = child;
+                return;
+            }
+            if (wideChildren == null) {
+                wideChildren = new TreeMap<>();
+            }
+            wideChildren.put(key, child);
+        }
+
+        Bucket endOfSurname() {
+            if (endOfSurname == null) {
+                endOfSurname = new Bucket(-1);
+            }
+            return endOfSurname;
+        }
+    }
+
+    /**
+     * Unsorted names that share the surname prefix of their path in the trie.
+     */
+    private static final class Bucket {
+
+        private static final Comparator<Name> BY_GIVEN_NAME =
+            (name, other) -> name.getGivenName().compareToIgnoreCase(other.getGivenName());
+
+        private final int depth; // Surname characters consumed by the path; -1 when the whole surname is
+
+        private Name[] names = new Name[8];
+
+        private int size;
+
+        private Bucket(int depth) {
+            this.depth = depth;
+        }
+
+        void add(Name name) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size++] = name;
+        }
+
+        /**
+         * Adds a name to the bucket of a complete surname, as a copy sharing the surname string of an earlier name if equal.
+         */
+        void addSameSurname(Name name) {
+            for (int i = 0; i < size && i < BURST_THRESHOLD; i++) {
+                final String surname = names[i].getLastName();
+                if (surname != name.getLastName() && surname.equals(name.getLastName())) {
+                    add(name.withLastName(surname));
+                    return;
+                }
+            }
+            add(name);
+        }
+
+        /**
+         * Redistributes the names into a new node, by their next surname character, keeping their order.
+         */
+        TrieNode burst() {
+            final TrieNode node = new TrieNode();
+            for (int i = 0; i < size; i++) {
+                final Name name = names[i];
+                final String surname = name.getLastName();
+                if (depth == surname.length()) {
+                    node.endOfSurname().addSameSurname(name);
+                    continue;
+                }
+                final char key = fold(surname.charAt(depth));
+                Bucket bucket = (Bucket) node.child(key);
+                if (bucket == null) {
+                    bucket = new Bucket(depth + 1);
+                    node.setChild(key, bucket);
+                }
+                bucket.add(name);
+            }
+            // a bucket still above the threshold (all names sharing a longer prefix) bursts on its next insert
+            return node;
+        }
+
+        void sortAndAppendTo(List<Name> sorted) {
+            final Comparator<Name> order = depth < 0
+                ? BY_GIVEN_NAME
+                : ((Comparator<Name>) (name, other) -> compareSurnamesFrom(name.getLastName(), other.getLastName(), depth))
+                    .thenComparing(BY_GIVEN_NAME);
+            Arrays.sort(names, 0, size, order); // stable
+            sorted.addAll(Arrays.asList(names).subList(0, size));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.dd.nameSorter.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe sorted container for any Comparable type, which many threads can insert into at once.
+ * Backed by a lock-free skip list ({@link ConcurrentSkipListSet}): inserts are O(log n) and never block each other,
+ * so parser threads can fill it directly instead of handing their values to a single writer.
+ * Duplicates are kept: every value is stored with an ordinal, and values comparing equal are ordered by ordinal.
+ * Using the position of the value in the input as its ordinal makes the traversal a stable sort,
+ * whichever thread inserted what and when.
+ * @param <T> the type of the values, ordered by their natural order and then by their ordinal
+ */
+public class ConcurrentSkipListBag<T extends Comparable<T>> {
+
+    private final ConcurrentSkipListSet<Entry<T>> entries = new ConcurrentSkipListSet<>();
+
+    private final AtomicLong nextOrdinal = new AtomicLong(); // for inserts without an ordinal
+
+    private final LongAdder size = new LongAdder(); // the size of the skip list is O(n) to count
+
+    /**
+     * Inserts a value after all equal values inserted so far without an ordinal.
+     * Not to be mixed with {@link #insert(Comparable, long)} on the same bag.
+     */
+    public void insert(T value) {
+        insert(value, nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * Inserts a value, ordered by ordinal among equal values.
+     * @param ordinal unique per value, e.g. its position in the input
+     * @throws IllegalArgumentException if an equal value was inserted with the same ordinal
+     */
+    public void insert(T value, long ordinal) {
+        if (!entries.add(new Entry<>(value, ordinal))) {
+            throw new IllegalArgumentException("Duplicate ordinal " + ordinal + " for value: " + value);
+        }
+        size.increment();
+    }
+
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Traverses the values in order. Weakly consistent while inserts are still running:
+     * the result then holds every value inserted before the traversal started, and maybe some inserted during it.
+     * @return the values in ascending order, equal values by ordinal
+     */
+    public List<T> traverseInOrder() {
+        final List<T> sortedList = new ArrayList<>(size());
+        for (Entry<T> entry : entries) {
+            sortedList.add(entry.value());
+        }
+        return sortedList;
+    }
+
+    private record Entry<T extends Comparable<T>>(T value, long ordinal) implements Comparable<Entry<T>> {
+
+        @Override
+        public int compareTo(Entry<T> other) {
+            final int comparison = value.compareTo(other.value);
+            return comparison != 0 ? comparison : Long.compare(ordinal, other.ordinal);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dd.nameSorter.model;
+
+import java.nio.file.Path;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * A name used as the sort key of a row in a delimited file (CSV, TSV), together with the position of that row.
+ * Only the key and the (offset, length) of the row are held in memory, such that the full rows can be copied
+ * to the output in sorted order with positional reads, and memory scales with the key size rather than the row width.
+ * Sorts exactly like {@link Name}; the row is not part of the order.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class IndexedName extends Name {
+
+    private final Path source; // The file the row is read from; shared by all rows of that file
+    private final long offset; // Byte offset of the row in the source file
+    private final int length; // Byte length of the row, without its line terminator
+
+    public IndexedName(String fullName, Path source, long offset, int length) {
+        super(fullName);
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates an indexed name from parts that are already split and validated, e.g. decoded from a dictionary.
+     */
+    public IndexedName(String givenName, String lastName, Path source, long offset, int length) {
+        super(givenName, lastName);
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public IndexedName withLastName(String lastName) {
+        return new IndexedName(getGivenName(), lastName, source, offset, length);
+    }
+}
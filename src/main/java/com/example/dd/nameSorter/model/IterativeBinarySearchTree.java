@@ -1,12 +1,17 @@
 package com.example.dd.nameSorter.model;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Iterative Binary Search Tree (BST) implementation for any single type object which is Comparable.
  * Use Loops instead of Recursion to avoid Java's recursive stack depth limits
  * This tree does NOT remove duplicates; duplicates are inserted to the right.
- * Rebalancing is NOT implemented in this version because only sorting is required, but not searching.
+ * The tree is kept balanced with AVL rotations, and supports finger insertion from the last insertion point,
+ * such that sorted or nearly sorted input costs close to O(1) comparisons per insert.
+ * Subtree sizes are maintained as well, so the tree doubles as an order statistics index:
+ * rank, select, range count, range iteration and deletion are all O(log n).
  * @param <T>
  */
 public class IterativeBinarySearchTree<T extends Comparable<T>> {
@@ -15,6 +20,8 @@ public class IterativeBinarySearchTree<T extends Comparable<T>> {
 
     private Node<T> root;
 
+    private Node<T> finger; // The last inserted node, starting point of the next finger insertion
+
     public IterativeBinarySearchTree() {}
 
     // ==========================================================
@@ -22,93 +29,174 @@ public class IterativeBinarySearchTree<T extends Comparable<T>> {
     // ==========================================================
     public void insert(T value) {
 
-        Node<T> newNode = new Node<>(value);
         if (root == null) {
-            root = newNode;
+            root = new Node<>(value);
+            finger = root;
             return;
         }
 
-        java.util.Stack<Node<T>> pathStack = new java.util.Stack<>();
-        Node<T> current = root;
-        Node<T> parent = null; // We need to track the parent to link the new node
+        insertBelow(root, value);
+    }
 
-        while (current != null) {
-            pathStack.push(current);
-            parent = current;
-            int comparison = value.compareTo(current.value);
+    /**
+     * Inserts the value by searching from the last insertion point instead of the root.
+     * Climbs from the finger only as far as needed for the value to fall within the subtree,
+     * so the cost is O(log d) comparisons, where d is the in-order distance to the previous insertion.
+     * Ascending input therefore costs O(1) comparisons per insert.
+     * The resulting position is the same as with {@link #insert}, including the order of duplicates.
+     */
+    public void fingerInsert(T value) {
 
-            if (comparison < 0) { // Value is smaller, move left
-                current = current.left;
+        if (finger == null) {
+            insert(value);
+            return;
+        }
+
+        Node<T> anchor = finger; // The lowest node known to contain the value's position in its subtree
+        Node<T> current = finger;
+
+        if (value.compareTo(finger.value) >= 0) {
+            // Moving right in order: the subtree of anchor is bounded above by the first ancestor we are left of
+            while (current.parent != null) {
+                Node<T> parent = current.parent;
+                if (current == parent.left) {
+                    if (value.compareTo(parent.value) < 0) {
+                        break;
+                    }
+                    anchor = parent;
+                }
+                current = parent;
+            }
+        } else {
+            // Moving left in order: the subtree of anchor is bounded below by the first ancestor we are right of
+            while (current.parent != null) {
+                Node<T> parent = current.parent;
+                if (current == parent.right) {
+                    if (value.compareTo(parent.value) >= 0) {
+                        break;
+                    }
+                    anchor = parent;
+                }
+                current = parent;
+            }
+        }
+
+        insertBelow(anchor, value);
+    }
+
+    /**
+     * Descends from the given node to a free leaf position, links the new node and rebalances.
+     */
+    private void insertBelow(Node<T> start, T value) {
+
+        Node<T> newNode = new Node<>(value);
+        Node<T> parent = start; // We need to track the parent to link the new node
+
+        while (true) {
+            if (value.compareTo(parent.value) < 0) { // Value is smaller, move left
+                if (parent.left == null) {
+                    parent.left = newNode;
+                    break;
+                }
+                parent = parent.left;
             } else { // Value is larger or equal (i.e. Preserve Duplication!), move right
-                current = current.right;
+                if (parent.right == null) {
+                    parent.right = newNode;
+                    break;
+                }
+                parent = parent.right;
             }
         }
 
-        // The loop exited because current is null, meaning parent is the new node's parent.
-        // Determine if the new node is the left or right child of the parent.
-        if (value.compareTo(parent.value) < 0) {
-            parent.left = newNode;
-        } else {
-            parent.right = newNode;
+        newNode.parent = parent;
+        finger = newNode;
+
+        // Every ancestor gains one node in its subtree
+        for (Node<T> ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            ancestor.size++;
         }
 
         // Iteratively go back up the path, checking balance (Ascent & Rebalance)
-        while (!pathStack.isEmpty()) {
-
-            Node<T> ancestor = pathStack.pop();
+        Node<T> ancestor = parent;
+        while (ancestor != null) {
 
-            // Find the ancestor's parent on the next iteration (if one exists)
-            Node<T> ancestorParent = pathStack.isEmpty() ? null : pathStack.peek();
+            Node<T> ancestorParent = ancestor.parent;
+            int previousHeight = ancestor.height;
 
             // Update height
             updateHeight(ancestor);
 
-            // Check balance
-            int balance = getBalance(ancestor);
-            Node<T> newSubtreeRoot = ancestor;
-
-            // --- Correct AVL Rebalancing Logic ---
-
-            // Case 1 & 3: Left-Heavy Tree
-            if (balance > BALANCE_THRESHOLD) {
-                // Case 3: Left-Right (child is right-heavy)
-                if (getBalance(ancestor.left) < 0) {
-                    ancestor.left = rotateLeft(ancestor.left);
-                }
-                // Case 1: Left-Left (child is left-heavy or balanced)
-                // This rotation is performed for both LL and LR cases.
-                newSubtreeRoot = rotateRight(ancestor);
-            }
-            // Case 2 & 4: Right-Heavy Tree
-            else if (balance < -BALANCE_THRESHOLD) {
-                // Case 4: Right-Left (child is left-heavy)
-                if (getBalance(ancestor.right) > 0) {
-                    ancestor.right = rotateRight(ancestor.right);
-                }
-                // Case 2: Right-Right (child is right-heavy or balanced)
-                // This rotation is performed for both RR and RL cases.
-                newSubtreeRoot = rotateLeft(ancestor);
-            }
+            // Check balance and rotate if needed
+            Node<T> newSubtreeRoot = rebalance(ancestor);
 
             // 4. Update the Parent's Pointer and Check for Optimization
-            if (!newSubtreeRoot.equals(ancestor)) {
+            if (newSubtreeRoot != ancestor) {
 
                 // Link the rotated subtree back to the grandparent
-                if (ancestorParent == null) {
-                    root = newSubtreeRoot;
-                } else if (newSubtreeRoot.value.compareTo(ancestorParent.value) < 0) {
-                    ancestorParent.left = newSubtreeRoot;
-                } else {
-                    ancestorParent.right = newSubtreeRoot;
-                }
+                replaceChild(ancestorParent, ancestor, newSubtreeRoot);
 
                 // AVL OPTIMIZATION: Stop after the first successful rotation.
                 break;
             }
+
+            // AVL OPTIMIZATION: Heights further up cannot change if this one did not.
+            if (ancestor.height == previousHeight) {
+                break;
+            }
+
+            ancestor = ancestorParent;
         }
 
     }
 
+    /**
+     * Restores the AVL balance of the subtree, assuming the heights of both children are up-to-date.
+     * @return the root of the subtree, which is a different node if a rotation happened
+     */
+    private Node<T> rebalance(Node<T> node) {
+
+        int balance = getBalance(node);
+
+        // --- Correct AVL Rebalancing Logic ---
+
+        // Case 1 & 3: Left-Heavy Tree
+        if (balance > BALANCE_THRESHOLD) {
+            // Case 3: Left-Right (child is right-heavy)
+            if (getBalance(node.left) < 0) {
+                node.left = rotateLeft(node.left);
+            }
+            // Case 1: Left-Left (child is left-heavy or balanced)
+            // This rotation is performed for both LL and LR cases.
+            return rotateRight(node);
+        }
+
+        // Case 2 & 4: Right-Heavy Tree
+        if (balance < -BALANCE_THRESHOLD) {
+            // Case 4: Right-Left (child is left-heavy)
+            if (getBalance(node.right) > 0) {
+                node.right = rotateRight(node.right);
+            }
+            // Case 2: Right-Right (child is right-heavy or balanced)
+            // This rotation is performed for both RR and RL cases.
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Points the parent (or the root) to the new child in place of the old one.
+     */
+    private void replaceChild(Node<T> parent, Node<T> oldChild, Node<T> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
+    }
+
     // ==========================================================
     // HEIGHT MANAGEMENT
     // ==========================================================
@@ -139,6 +227,27 @@ public class IterativeBinarySearchTree<T extends Comparable<T>> {
         }
     }
 
+    // ==========================================================
+    // SIZE MANAGEMENT (Order Statistics)
+    // ==========================================================
+
+    /**
+     * Gets the number of nodes in the node's subtree (or 0 if the node is null).
+     */
+    private int size(Node<T> N) {
+        return (N == null) ? 0 : N.size;
+    }
+
+    /**
+     * Recalculates and updates the subtree size of the given node.
+     * Size = 1 + Size of Left Child + Size of Right Child.
+     */
+    private void updateSize(Node<T> N) {
+        if (N != null) {
+            N.size = 1 + size(N.left) + size(N.right);
+        }
+    }
+
     // ==========================================================
     // ROTATIONS
     // ==========================================================
@@ -157,10 +266,17 @@ public class IterativeBinarySearchTree<T extends Comparable<T>> {
         // 2. Perform rotation
         pivot.right = parent;
         parent.left = middleChild;
+        pivot.parent = parent.parent;
+        parent.parent = pivot;
+        if (middleChild != null) {
+            middleChild.parent = parent;
+        }
 
-        // 3. Update heights from the bottom up (MUST be done in this order)
+        // 3. Update heights and sizes from the bottom up (MUST be done in this order)
         updateHeight(parent);
         updateHeight(pivot);
+        updateSize(parent);
+        updateSize(pivot);
 
         return pivot; // New root of the subtree
     }
@@ -179,21 +295,231 @@ public class IterativeBinarySearchTree<T extends Comparable<T>> {
         // 2. Perform rotation
         pivot.left = parent;
         parent.right = middleChild;
+        pivot.parent = parent.parent;
+        parent.parent = pivot;
+        if (middleChild != null) {
+            middleChild.parent = parent;
+        }
 
-        // 3. Update heights from the bottom up (MUST be done in this order)
+        // 3. Update heights and sizes from the bottom up (MUST be done in this order)
         updateHeight(parent);
         updateHeight(pivot);
+        updateSize(parent);
+        updateSize(pivot);
 
         return pivot; // New root of the subtree
     }
 
+    // ==========================================================
+    // ORDER STATISTICS (Uses subtree sizes, all O(log n))
+    // ==========================================================
+
+    /**
+     * @return the number of values in the tree, duplicates included
+     */
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * Counts the values strictly less than the given value,
+     * i.e. the index the first occurrence of the value has (or would have) in the sorted order.
+     */
+    public int rank(T value) {
+
+        int rank = 0;
+        Node<T> current = root;
+        while (current != null) {
+            if (value.compareTo(current.value) <= 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Counts the values less than or equal to the given value.
+     */
+    private int rankAfter(T value) {
+
+        int rank = 0;
+        Node<T> current = root;
+        while (current != null) {
+            if (value.compareTo(current.value) < 0) {
+                current = current.left;
+            } else {
+                rank += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Gets the value at the given index of the sorted order.
+     * @param index zero-based index
+     * @throws IndexOutOfBoundsException if the index is negative or not less than {@link #size()}
+     */
+    public T select(int index) {
+
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+        }
+
+        Node<T> current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current.value;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Counts the values between from and to, both inclusive.
+     */
+    public int rangeCount(T from, T to) {
+        return Math.max(0, rankAfter(to) - rank(from));
+    }
+
+    /**
+     * Iterates in order over the values between from and to, both inclusive.
+     * Finding the first value is O(log n), every next value is O(1) amortized.
+     * The tree must not be modified while iterating.
+     */
+    public Iterator<T> range(T from, T to) {
+
+        // Find the first node not less than from
+        Node<T> first = null;
+        Node<T> current = root;
+        while (current != null) {
+            if (from.compareTo(current.value) <= 0) {
+                first = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+
+        final Node<T> start = first;
+        return new Iterator<>() {
+
+            private Node<T> next = (start != null && to.compareTo(start.value) >= 0) ? start : null;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                T value = next.value;
+                Node<T> successor = successor(next);
+                next = (successor != null && to.compareTo(successor.value) >= 0) ? successor : null;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Gets the next node in order, using the parent links instead of a stack.
+     */
+    private Node<T> successor(Node<T> node) {
+
+        if (node.right != null) {
+            Node<T> current = node.right;
+            while (current.left != null) {
+                current = current.left;
+            }
+            return current;
+        }
+
+        Node<T> current = node;
+        while (current.parent != null && current == current.parent.right) {
+            current = current.parent;
+        }
+        return current.parent;
+    }
+
+    // ==========================================================
+    // ITERATIVE DELETION
+    // ==========================================================
+
+    /**
+     * Removes one occurrence of the value, rebalancing on the way up.
+     * @return true if the value was found and removed
+     */
+    public boolean delete(T value) {
+
+        Node<T> node = root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value);
+            if (comparison == 0) {
+                break;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+
+        if (node == null) {
+            return false;
+        }
+
+        // A node with two children takes over the value of its successor, which is then removed instead
+        if (node.left != null && node.right != null) {
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.value = successor.value;
+            node = successor;
+        }
+
+        // The node to remove has at most one child now, which takes its place
+        Node<T> child = node.left != null ? node.left : node.right;
+        Node<T> parent = node.parent;
+        if (child != null) {
+            child.parent = parent;
+        }
+        replaceChild(parent, node, child);
+
+        if (finger == node) {
+            finger = null; // fall back to a root insertion next time
+        }
+
+        // Unlike insertion, a deletion may need a rotation on every level, and sizes change up to the root
+        Node<T> ancestor = parent;
+        while (ancestor != null) {
+            Node<T> ancestorParent = ancestor.parent;
+            updateHeight(ancestor);
+            updateSize(ancestor);
+            Node<T> newSubtreeRoot = rebalance(ancestor);
+            if (newSubtreeRoot != ancestor) {
+                replaceChild(ancestorParent, ancestor, newSubtreeRoot);
+            }
+            ancestor = ancestorParent;
+        }
+
+        return true;
+    }
+
     // ==========================================================
     // 2. ITERATIVE TRAVERSAL (Uses a Stack to replace the recursion)
     // ==========================================================
     public List<T> traverseInOrder() {
 
         // 1. Initialize the list that will hold the final sorted result
-        List<T> sortedList = new java.util.ArrayList<>();
+        List<T> sortedList = new java.util.ArrayList<>(size());
 
         if (root == null) {
             return sortedList; // Return an empty list if the tree is empty
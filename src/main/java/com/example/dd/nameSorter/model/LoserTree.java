@@ -0,0 +1,110 @@
+package com.example.dd.nameSorter.model;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Tournament (loser) tree merging any number of sorted sources into one sorted sequence.
+ * Every internal node remembers the loser of the match played there, and the overall winner is kept apart,
+ * so replacing the winner only replays the matches on its path to the root: log2(k) comparisons per value.
+ * Values comparing equal are taken from the source with the lowest index first, i.e. the merge is stable.
+ * Only the current head of every source is held in memory.
+ * @param <T>
+ */
+public class LoserTree<T extends Comparable<T>> implements Iterator<T> {
+
+    private static final int NONE = -1;
+
+    private final List<? extends Iterator<T>> sources;
+
+    private final Object[] heads; // Current value of every source, null when exhausted
+
+    private final int[] losers; // losers[n] is the source that lost the match at internal node n (1..k-1)
+
+    private int winner;
+
+    public LoserTree(List<? extends Iterator<T>> sources) {
+
+        this.sources = sources;
+        int k = sources.size();
+        this.heads = new Object[k];
+        this.losers = new int[Math.max(k, 1)];
+
+        if (k == 0) {
+            winner = NONE;
+            return;
+        }
+
+        for (int i = 0; i < k; i++) {
+            heads[i] = sources.get(i).hasNext() ? sources.get(i).next() : null;
+        }
+
+        // Play the initial tournament bottom-up: leaves are the nodes k..2k-1, internal nodes are 1..k-1
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++) {
+            winners[k + i] = i;
+        }
+        for (int n = k - 1; n >= 1; n--) {
+            int left = winners[2 * n];
+            int right = winners[2 * n + 1];
+            if (beats(left, right)) {
+                winners[n] = left;
+                losers[n] = right;
+            } else {
+                winners[n] = right;
+                losers[n] = left;
+            }
+        }
+        winner = k == 1 ? 0 : winners[1];
+    }
+
+    @Override
+    public boolean hasNext() {
+        return winner != NONE && heads[winner] != null;
+    }
+
+    @Override
+    public T next() {
+
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        @SuppressWarnings("unchecked")
+        T value = (T) heads[winner];
+
+        // Refill the winner's leaf from its source, then replay the matches up to the root
+        Iterator<T> source = sources.get(winner);
+        heads[winner] = source.hasNext() ? source.next() : null;
+
+        int candidate = winner;
+        for (int n = (winner + heads.length) >> 1; n >= 1; n >>= 1) {
+            if (beats(losers[n], candidate)) {
+                int previousLoser = losers[n];
+                losers[n] = candidate;
+                candidate = previousLoser;
+            }
+        }
+        winner = candidate;
+
+        return value;
+    }
+
+    /**
+     * A source beats another if its head is smaller, or equal and from a lower index. Exhausted sources always lose.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean beats(int source, int other) {
+        T head = (T) heads[source];
+        T otherHead = (T) heads[other];
+        if (head == null) {
+            return false;
+        }
+        if (otherHead == null) {
+            return true;
+        }
+        int comparison = head.compareTo(otherHead);
+        return comparison < 0 || (comparison == 0 && source < other);
+    }
+}
@@ -14,25 +14,164 @@ public class Name implements Comparable<Name> {
     private String givenName;
     private String lastName;
 
-    public Name(String fullName) {
+    /**
+     * Outcome of validating a full name, such that callers on the hot path can skip invalid lines without exceptions.
+     */
+    public enum Validation {
+        VALID("Valid name"),
+        EMPTY("Name cannot be null or empty"),
+        TOO_FEW_NAMES("Full name must contain at least a given name and a last name"),
+        TOO_MANY_NAMES("Full name cannot contain more than three given names and a last name");
+
+        private final String message;
 
-        if (fullName == null || fullName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Name cannot be null or empty");
+        Validation(String message) {
+            this.message = message;
         }
 
-        String[] parts = fullName.trim().split("\\s+");
-        if (parts.length < MIN_NAMES) {
-            throw new IllegalArgumentException("Full name must contain at least a given name and a last name");
+        public String getMessage() {
+            return message;
         }
+    }
+
+    public Name(String fullName) {
 
-        if (parts.length > MAX_NAMES) {
-            throw new IllegalArgumentException("Full name cannot contain more than three given names and a last name");
+        Validation validation = validate(fullName);
+        if (validation != Validation.VALID) {
+            throw new IllegalArgumentException(validation.getMessage());
         }
 
+        String[] parts = fullName.trim().split("\\s+");
+
         this.lastName = parts[parts.length - 1];
         this.givenName = String.join(" ", java.util.Arrays.copyOf(parts, parts.length - 1));
     }
 
+    /**
+     * Validates a full name without allocating, by counting its whitespace separated parts.
+     * @param fullName the full name, possibly null
+     * @return {@link Validation#VALID} if {@link #Name(String)} accepts the name, the reason why not otherwise
+     */
+    public static Validation validate(String fullName) {
+
+        if (fullName == null) {
+            return Validation.EMPTY;
+        }
+
+        // Same bounds as String.trim()
+        int start = 0;
+        int end = fullName.length();
+        while (start < end && fullName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fullName.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return Validation.EMPTY;
+        }
+
+        // Same parts as split("\\s+") on the trimmed name
+        int parts = 1;
+        boolean inSeparator = false;
+        for (int i = start; i < end; i++) {
+            boolean separator = isWhitespace(fullName.charAt(i));
+            if (separator && !inSeparator) {
+                parts++;
+                if (parts > MAX_NAMES) {
+                    return Validation.TOO_MANY_NAMES;
+                }
+            }
+            inSeparator = separator;
+        }
+
+        return parts < MIN_NAMES ? Validation.TOO_FEW_NAMES : Validation.VALID;
+    }
+
+    /**
+     * Parses a full name in one scan, the same way as {@link #Name(String)} but without throwing, validating twice
+     * or splitting with a regular expression, for reading names on the hot path.
+     * @param fullName the full name, possibly null
+     * @return the name, or null if it is not valid; {@link #validate(String)} tells why
+     */
+    public static Name parse(String fullName) {
+
+        if (fullName == null) {
+            return null;
+        }
+
+        // Same bounds as String.trim()
+        int start = 0;
+        int end = fullName.length();
+        while (start < end && fullName.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && fullName.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+
+        // Same parts as split("\\s+") on the trimmed name; the last separator ends the given names
+        int parts = 1;
+        int givenNameEnd = start;
+        int lastNameStart = start;
+        boolean singleSpaces = true;
+        boolean inSeparator = false;
+        for (int i = start; i < end; i++) {
+            final char c = fullName.charAt(i);
+            final boolean separator = isWhitespace(c);
+            if (separator && !inSeparator) {
+                parts++;
+                if (parts > MAX_NAMES) {
+                    return null;
+                }
+                givenNameEnd = i;
+                singleSpaces &= c == ' ';
+            } else if (separator) {
+                singleSpaces = false;
+            } else if (inSeparator) {
+                lastNameStart = i;
+            }
+            inSeparator = separator;
+        }
+        if (parts < MIN_NAMES) {
+            return null;
+        }
+
+        final String givenNames = fullName.substring(start, givenNameEnd);
+        return new Name(
+            // rare: given names separated by other or repeated whitespace are joined with single spaces
+            singleSpaces ? givenNames : String.join(" ", givenNames.split("\\s+")),
+            fullName.substring(lastNameStart, end));
+    }
+
+    /**
+     * The characters matched by the regular expression class \s.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Creates a name from parts that are already split and validated, e.g. decoded from a dictionary.
+     * @param givenName the given names, separated by single spaces
+     * @param lastName the last name
+     */
+    public Name(String givenName, String lastName) {
+        this.givenName = givenName;
+        this.lastName = lastName;
+    }
+
+    /**
+     * @param lastName the last name of the copy, e.g. a shared instance of an equal last name
+     * @return a copy of this name with the given last name; this name is left unchanged
+     */
+    public Name withLastName(String lastName) {
+        return new Name(givenName, lastName);
+    }
+
     @Override
     public int compareTo(Name other) {
         int lastNameComparison = this.lastName.compareToIgnoreCase(other.lastName);
@@ -0,0 +1,207 @@
+package com.example.dd.nameSorter.model;
+
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Dictionary encoding of names for low cardinality data, i.e. few distinct surnames and given names repeated many times.
+ * Every distinct surname and given name string is stored once in a symbol table,
+ * and every name is stored as a pair of primitive int symbol ids (8 bytes per name).
+ * Sorting ranks the symbols by case-insensitive order once, then sorts the names by their (surname, given name) ranks
+ * with two stable counting sort passes in O(n + symbols), without comparing any strings per name.
+ * The resulting order matches {@link Name#compareTo}, and names that compare equal keep their insertion order.
+ * The row positions of {@link IndexedName} entries are kept alongside the symbol ids, and decoded back with them.
+ */
+public class NameDictionary {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final SymbolTable surnames = new SymbolTable();
+
+    private final SymbolTable givenNames = new SymbolTable();
+
+    private int[] surnameIds = new int[INITIAL_CAPACITY];
+
+    private int[] givenNameIds = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    // Row positions, only allocated for indexed names, which all come from the same source file
+    private Path rowSource;
+
+    private long[] rowOffsets;
+
+    private int[] rowLengths;
+
+    public NameDictionary() {}
+
+    public void add(Name name) {
+        if (size == surnameIds.length) {
+            surnameIds = Arrays.copyOf(surnameIds, size * 2);
+            givenNameIds = Arrays.copyOf(givenNameIds, size * 2);
+            if (rowOffsets != null) {
+                rowOffsets = Arrays.copyOf(rowOffsets, size * 2);
+                rowLengths = Arrays.copyOf(rowLengths, size * 2);
+            }
+        }
+        surnameIds[size] = surnames.intern(name.getLastName());
+        givenNameIds[size] = givenNames.intern(name.getGivenName());
+        if (name instanceof IndexedName indexedName) {
+            addRow(indexedName);
+        } else if (rowOffsets != null) {
+            throw new IllegalArgumentException("Cannot mix plain names with indexed names");
+        }
+        size++;
+    }
+
+    private void addRow(IndexedName name) {
+        if (rowOffsets == null) {
+            if (size > 0) {
+                throw new IllegalArgumentException("Cannot mix indexed names with plain names");
+            }
+            rowSource = name.getSource();
+            rowOffsets = new long[surnameIds.length];
+            rowLengths = new int[surnameIds.length];
+        } else if (!rowSource.equals(name.getSource())) {
+            throw new IllegalArgumentException("Indexed names must come from one source file, but found: "
+                + rowSource + " and " + name.getSource());
+        }
+        rowOffsets[size] = name.getOffset();
+        rowLengths[size] = name.getLength();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int distinctSurnames() {
+        return surnames.symbols.size();
+    }
+
+    public int distinctGivenNames() {
+        return givenNames.symbols.size();
+    }
+
+    /**
+     * Sorts the encoded names and returns them decoded, in {@link Name#compareTo} order.
+     * Names are decoded lazily on access, so the list itself only holds the sorted positions.
+     * @return a read-only list of the sorted names
+     */
+    public List<Name> sortedNames() {
+
+        final int[] surnameRanks = surnames.ranks();
+        final int[] givenNameRanks = givenNames.ranks();
+
+        // LSD radix sort on (surname rank, given name rank): sort by the minor key first, then stably by the major key
+        final int[] identity = new int[size];
+        Arrays.setAll(identity, i -> i);
+        final int[] byGivenName = countingSort(identity, givenNameIds, givenNameRanks);
+        final int[] sorted = countingSort(byGivenName, surnameIds, surnameRanks);
+
+        return new DecodedNames(sorted);
+    }
+
+    /**
+     * Stable counting sort of the positions by the rank of their symbol.
+     */
+    private static int[] countingSort(int[] positions, int[] symbolIds, int[] symbolRanks) {
+
+        int maxRank = 0;
+        for (int rank : symbolRanks) {
+            maxRank = Math.max(maxRank, rank);
+        }
+
+        final int[] start = new int[maxRank + 2];
+        for (int position : positions) {
+            start[symbolRanks[symbolIds[position]] + 1]++;
+        }
+        for (int rank = 0; rank <= maxRank; rank++) {
+            start[rank + 1] += start[rank];
+        }
+
+        final int[] sorted = new int[positions.length];
+        for (int position : positions) {
+            sorted[start[symbolRanks[symbolIds[position]]]++] = position;
+        }
+        return sorted;
+    }
+
+    /**
+     * Interns strings into dense int ids, in order of first appearance.
+     */
+    private static final class SymbolTable {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private final List<String> symbols = new ArrayList<>();
+
+        int intern(String symbol) {
+            Integer id = ids.get(symbol);
+            if (id == null) {
+                id = symbols.size();
+                ids.put(symbol, id);
+                symbols.add(symbol);
+            }
+            return id;
+        }
+
+        String symbol(int id) {
+            return symbols.get(id);
+        }
+
+        /**
+         * Ranks the symbols by case-insensitive order, as {@link String#compareToIgnoreCase} does.
+         * Symbols differing only in case share the same rank.
+         * @return the rank of every symbol, indexed by symbol id
+         */
+        int[] ranks() {
+
+            final Integer[] byOrder = new Integer[symbols.size()];
+            Arrays.setAll(byOrder, i -> i);
+            Arrays.sort(byOrder, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(symbols.get(a), symbols.get(b)));
+
+            final int[] ranks = new int[symbols.size()];
+            int rank = 0;
+            for (int i = 0; i < byOrder.length; i++) {
+                if (i > 0 && String.CASE_INSENSITIVE_ORDER.compare(symbols.get(byOrder[i - 1]), symbols.get(byOrder[i])) != 0) {
+                    rank++;
+                }
+                ranks[byOrder[i]] = rank;
+            }
+            return ranks;
+        }
+    }
+
+    /**
+     * Read-only view decoding sorted positions back into names.
+     */
+    private final class DecodedNames extends AbstractList<Name> implements RandomAccess {
+
+        private final int[] positions;
+
+        private DecodedNames(int[] positions) {
+            this.positions = positions;
+        }
+
+        @Override
+        public Name get(int index) {
+            final int position = positions[index];
+            final String givenName = givenNames.symbol(givenNameIds[position]);
+            final String surname = surnames.symbol(surnameIds[position]);
+            return rowOffsets == null
+                ? new Name(givenName, surname)
+                : new IndexedName(givenName, surname, rowSource, rowOffsets[position], rowLengths[position]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
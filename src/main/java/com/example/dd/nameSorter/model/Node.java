@@ -1,16 +1,24 @@
 package com.example.dd.nameSorter.model;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Data
 class Node<T extends Comparable<T>> {
     T value;
     Node<T> left;
     Node<T> right;
+    // Back link for climbing from a finger (last insertion point); excluded to avoid cycles
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Node<T> parent;
     int height; // Height of the node for balancing purposes
+    int size; // Number of nodes in this subtree, for rank and select queries
 
     public Node(T value) {
         this.value = value;
         this.height = 1;
+        this.size = 1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Picks one of the other sorting services per input file, based on a sampled {@link InputProfile}.
+ * The choice and the reason behind it are logged, and can be pinned with {@code app.service.auto.engine}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.service.type", havingValue = "auto", matchIfMissing = false)
+public class AdaptiveNameSortingService extends FileContentSortingEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveNameSortingService.class);
+
+    public static final String BINARY_TREE = "binaryTree";
+
+    public static final String COLLECTION = "collection";
+
+    public static final String RANGE_PARTITIONED = "rangePartitioned";
+
+    public static final String DICTIONARY = "dictionary";
+
+    public static final String BURST_TRIE = "burstTrie";
+
+    public static final String CONCURRENT = "concurrent";
+
+    // below this size the engines are indistinguishable, so keep the default engine
+    static final long SMALL_INPUT_RECORDS = 10_000;
+
+    // TimSort merges natural runs in close to linear time
+    static final double PRESORTED_THRESHOLD = 0.9;
+
+    // with this many repeated names, ranking the few distinct strings once beats comparing strings per name;
+    // only trusted for ASCII input, where the sampled lower-case duplicates are exactly the compareToIgnoreCase ones
+    static final double DUPLICATE_THRESHOLD = 0.5;
+
+    // above this size, sorting range partitions on several cores outweighs the scatter pass
+    static final long PARALLEL_INPUT_RECORDS = 100_000;
+
+    private final Map<String, FileContentSortingEvaluationService> engines = new LinkedHashMap<>();
+
+    @Value("${app.service.auto.engine:}")
+    private String engineOverride = "";
+
+    public AdaptiveNameSortingService() {
+        engines.put(BINARY_TREE, new BinaryTreeNameSortingService());
+        engines.put(COLLECTION, new CollectionNameSortingService());
+        engines.put(RANGE_PARTITIONED, new RangePartitionedNameSortingService());
+        engines.put(DICTIONARY, new DictionaryEncodedNameSortingService());
+        engines.put(BURST_TRIE, new BurstTrieNameSortingService()); // only selected through app.service.auto.engine
+        engines.put(CONCURRENT, new ConcurrentSkipListNameSortingService()); // only selected through app.service.auto.engine
+    }
+
+    public void setEngineOverride(String engineOverride) {
+        this.engineOverride = engineOverride;
+    }
+
+    // The engines are not Spring beans, so settings are passed on to them.
+    // @Value is repeated on the overrides because Spring does not inherit it from overridden setters.
+
+    @Override
+    @Value("${app.rejected.dir:logs}")
+    public void setRejectedRecordsDir(String rejectedRecordsDir) {
+        super.setRejectedRecordsDir(rejectedRecordsDir);
+        engines.values().forEach(engine -> engine.setRejectedRecordsDir(rejectedRecordsDir));
+    }
+
+    @Override
+    @Value("${app.rows.delimiter:}")
+    public void setRowDelimiter(String rowDelimiter) {
+        super.setRowDelimiter(rowDelimiter);
+        engines.values().forEach(engine -> engine.setRowDelimiter(rowDelimiter));
+    }
+
+    @Override
+    @Value("${app.rows.name-column:0}")
+    public void setNameColumn(int nameColumn) {
+        super.setNameColumn(nameColumn);
+        engines.values().forEach(engine -> engine.setNameColumn(nameColumn));
+    }
+
+    @Override
+    @Value("${app.rows.header:false}")
+    public void setHeaderRow(boolean headerRow) {
+        super.setHeaderRow(headerRow);
+        engines.values().forEach(engine -> engine.setHeaderRow(headerRow));
+    }
+
+    @Override
+    @Value("${app.output.shards:1}")
+    public void setOutputShards(int outputShards) {
+        super.setOutputShards(outputShards);
+        engines.values().forEach(engine -> engine.setOutputShards(outputShards));
+    }
+
+    @Override
+    @Value("${app.output.shard-by:surname}")
+    public void setShardBy(String shardBy) {
+        super.setShardBy(shardBy);
+        engines.values().forEach(engine -> engine.setShardBy(shardBy));
+    }
+
+    @Override
+    @Value("${app.progress.interval-millis:10000}")
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        super.setProgressIntervalMillis(progressIntervalMillis);
+        engines.values().forEach(engine -> engine.setProgressIntervalMillis(progressIntervalMillis));
+    }
+
+    @Override
+    public void setProgressListener(@Nonnull Consumer<ProgressReporter.Progress> progressListener) {
+        super.setProgressListener(progressListener);
+        engines.values().forEach(engine -> engine.setProgressListener(progressListener));
+    }
+
+    @Value("${app.service.partitions:0}")
+    public void setPartitions(int partitions) {
+        ((RangePartitionedNameSortingService) engines.get(RANGE_PARTITIONED)).setPartitions(partitions);
+    }
+
+    @Value("${app.service.parser-threads:0}")
+    public void setParserThreads(int parserThreads) {
+        ((ConcurrentSkipListNameSortingService) engines.get(CONCURRENT)).setParserThreads(parserThreads);
+    }
+
+    /**
+     * Samples the input file and selects the engine expected to sort it fastest.
+     * @param inputFilePath the path to the input file
+     * @return the alias of the selected engine, as used by {@code app.service.type}
+     */
+    public String selectEngine(@Nonnull String inputFilePath) {
+
+        if (engineOverride != null && !engineOverride.isBlank()) {
+            if (!engines.containsKey(engineOverride)) {
+                throw new IllegalArgumentException("Unknown sorting engine override: " + engineOverride
+                    + ", expected one of " + engines.keySet());
+            }
+            logger.info("Selected engine [{}]: overridden by app.service.auto.engine", engineOverride);
+            return engineOverride;
+        }
+
+        if (STANDARD_STREAM.equals(inputFilePath)) {
+            logger.info("Selected engine [{}]: standard input cannot be sampled ahead, the tree sorts names as they arrive",
+                BINARY_TREE);
+            return BINARY_TREE;
+        }
+
+        final InputProfile profile = InputProfile.of(Paths.get(inputFilePath));
+        logger.info("Sampled input: {}", profile);
+
+        final String engine;
+        final String reason;
+        if (profile.estimatedRecords() < SMALL_INPUT_RECORDS) {
+            engine = BINARY_TREE;
+            reason = "small input (~" + profile.estimatedRecords() + " names), sorting cost is negligible";
+        } else if (profile.presortedness() >= PRESORTED_THRESHOLD) {
+            engine = COLLECTION;
+            reason = String.format("input is %.0f%% presorted, TimSort merges the natural runs",
+                profile.presortedness() * 100);
+        } else if (profile.duplicateRatio() >= DUPLICATE_THRESHOLD && profile.ascii()) {
+            engine = DICTIONARY;
+            reason = String.format("%.0f%% of sampled names are repeated, dictionary encoding sorts by rank without string comparisons",
+                profile.duplicateRatio() * 100);
+        } else if (profile.estimatedRecords() >= PARALLEL_INPUT_RECORDS && Runtime.getRuntime().availableProcessors() > 1) {
+            engine = RANGE_PARTITIONED;
+            reason = "large unsorted input (~" + profile.estimatedRecords() + " names), sorting range partitions on "
+                + Runtime.getRuntime().availableProcessors() + " cores";
+        } else {
+            engine = COLLECTION;
+            reason = "large unsorted input (~" + profile.estimatedRecords()
+                + " names), one bulk sort beats per-name tree insertion";
+        }
+
+        logger.info("Selected engine [{}]: {}", engine, reason);
+        return engine;
+    }
+
+    /**
+     * Hands the whole sort to the selected engine, as engines differ in whether they sort on read or on write,
+     * so the names are read and written by the same engine without keeping the selection in this shared service.
+     */
+    @Override
+    public void sortNamesInFile(@Nonnull String inputFilePath, @Nonnull String outputFilePath) {
+        engines.get(selectEngine(inputFilePath)).sortNamesInFile(inputFilePath, outputFilePath);
+    }
+
+    /**
+     * Not used, the selected engine reads the names, see {@link #sortNamesInFile(String, String)}.
+     */
+    @Override
+    protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
+        throw new UnsupportedOperationException("Names are read by the engine selected in sortNamesInFile");
+    }
+
+    /**
+     * Not used, the selected engine writes the names, see {@link #sortNamesInFile(String, String)}.
+     */
+    @Override
+    protected @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+        throw new UnsupportedOperationException("Names are written by the engine selected in sortNamesInFile");
+    }
+}
@@ -3,20 +3,10 @@ package com.example.dd.nameSorter.service;
 import com.example.dd.nameSorter.model.IterativeBinarySearchTree;
 import com.example.dd.nameSorter.model.Name;
 import jakarta.annotation.Nonnull;
-import java.io.BufferedWriter;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.function.Consumer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
@@ -24,44 +14,14 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(name = "app.service.type", havingValue = "binaryTree", matchIfMissing = true)
 public class BinaryTreeNameSortingService extends FileContentSortingEvaluationService {
 
-    private static final Logger logger = LoggerFactory.getLogger(BinaryTreeNameSortingService.class);
-
     @Override
     protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
 
-        final IterativeBinarySearchTree<Name> nameTree = new IterativeBinarySearchTree<Name>();
-
-        final Path path = Paths.get(inputFilePath);
-
-        final AtomicInteger lineCount = new AtomicInteger(0);
-        try {
-            Files.readAllLines(path)
-                .stream()
-                .filter(line -> {
-                    lineCount.incrementAndGet();
-                    final boolean isEmpty = line.trim().isEmpty();
-                    if (isEmpty) {
-                        logger.warn("Skipping empty line: {}", lineCount.get());
-                    }
-                    return !isEmpty;
-                })
-                .map(fullName -> {
-                    try {
-                        return new Name(fullName);
-                    } catch (IllegalArgumentException e) {
-                        logger.warn("Skipping line: {}. Invalid name format: {}", lineCount.get(), e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .forEach(nameTree::insert);
-
-        } catch (IOException e) {
-            logger.error("Error reading file: {}", e.getMessage());
-            throw new RuntimeException("Failed to read names from file: " + inputFilePath, e);
-        }
+        final NaturalRunCollector nameCollector = new NaturalRunCollector();
+
+        forEachNameInFile(inputFilePath, nameCollector);
 
-        return nameTree.traverseInOrder();
+        return nameCollector.sortedNames();
     }
 
     @Override
@@ -69,35 +29,71 @@ public class BinaryTreeNameSortingService extends FileContentSortingEvaluationSe
 
         // No sorting is needed here because the names are already sorted in the BST.
 
-        final Path path = Paths.get(outputFilePath);
-
-        try (
-            final BufferedWriter writer = Files.newBufferedWriter(
-                path,
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.TRUNCATE_EXISTING)
-        ) {
-            return nameList.stream()
-                .map(name -> {
-                    try {
-                        // Write the line and add a separator
-                        writer.write(name.toString());
-                        writer.newLine();
-                        return name.toString();
-                    } catch (IOException e) {
-                        // Cannot throw checked exceptions from inside a forEach lambda.
-                        // Instead, convert it to a RuntimeException (or log and absorb).
-                        throw new UncheckedIOException("Failed to write line to file: " + name.toString(), e);
-                    }
-                })
-                .toList();
-
-        } catch (UncheckedIOException e) {
-            throw new RuntimeException("Failed to write sorted names to file: " + outputFilePath, e.getCause());
-
-        } catch (IOException e) {
-            throw new RuntimeException("File IO setup/teardown failed for: " + outputFilePath, e);
+        return writeNamesInOrder(nameList, outputFilePath);
+    }
+
+    /**
+     * Collects names into a plain list for as long as the input is in order (a natural run),
+     * so an already sorted file is passed through in O(n) without building a tree.
+     * On the first name out of order, the run is moved into the tree and the rest is finger inserted,
+     * which keeps nearly sorted input close to O(n) comparisons as well.
+     * Finger insertion costs more than root insertion on random input, so it is only used
+     * while the recent input stays mostly ascending.
+     */
+    private static final class NaturalRunCollector implements Consumer<Name> {
+
+        private static final int WINDOW_SIZE = 64;
+
+        private static final int MAX_DESCENTS_FOR_FINGER = WINDOW_SIZE / 4;
+
+        private List<Name> naturalRun = new ArrayList<>();
+
+        private IterativeBinarySearchTree<Name> nameTree;
+
+        private Name previousName;
+
+        private int windowInserts;
+
+        private int windowDescents;
+
+        private boolean fingerInsertion = true;
+
+        @Override
+        public void accept(Name name) {
+
+            if (nameTree == null) {
+                if (previousName == null || previousName.compareTo(name) <= 0) {
+                    naturalRun.add(name);
+                    previousName = name;
+                    return;
+                }
+
+                nameTree = new IterativeBinarySearchTree<>();
+                naturalRun.forEach(nameTree::fingerInsert); // ascending, so O(1) comparisons each
+                naturalRun = null;
+            }
+
+            if (name.compareTo(previousName) < 0) {
+                windowDescents++;
+            }
+
+            if (fingerInsertion) {
+                nameTree.fingerInsert(name);
+            } else {
+                nameTree.insert(name);
+            }
+            previousName = name;
+
+            // re-evaluate the insertion mode for the next window from the disorder seen in this one
+            if (++windowInserts == WINDOW_SIZE) {
+                fingerInsertion = windowDescents <= MAX_DESCENTS_FOR_FINGER;
+                windowInserts = 0;
+                windowDescents = 0;
+            }
+        }
+
+        Collection<Name> sortedNames() {
+            return nameTree == null ? naturalRun : nameTree.traverseInOrder();
         }
     }
 }
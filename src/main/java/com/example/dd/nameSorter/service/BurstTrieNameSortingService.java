@@ -0,0 +1,32 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.BurstTrie;
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "app.service.type", havingValue = "burstTrie", matchIfMissing = false)
+public class BurstTrieNameSortingService extends FileContentSortingEvaluationService {
+
+    @Override
+    protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
+
+        final BurstTrie nameTrie = new BurstTrie();
+
+        forEachNameInFile(inputFilePath, nameTrie::add);
+
+        return nameTrie.sortedNames();
+    }
+
+    @Override
+    protected @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+
+        // No sorting is needed here because the names are sorted by the in-order walk of the trie.
+
+        return writeNamesInOrder(nameList, outputFilePath);
+    }
+}
@@ -0,0 +1,592 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.LoserTree;
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Properties;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sorts a huge file as a resumable job, for runs that may be killed before they finish (deploy, OOM-kill, reclaimed instance).
+ * The job runs in two phases, both checkpointed to {@code <app.job.work-dir>/<job id>/checkpoint.properties}:
+ * <ol>
+ *     <li>Runs: the input is read in chunks of {@code app.job.run-size} names, every chunk is sorted and persisted as a run file,
+ *     then the input byte offset consumed so far is checkpointed.</li>
+ *     <li>Merge: the runs are merged into the output with a {@link LoserTree}; every {@code app.job.checkpoint-every} names,
+ *     the output is flushed to disk, and the output byte offset and the names consumed from every run are checkpointed.
+ *     With more runs than {@code app.merge.max-open-files}, groups of runs are first merged into fewer, longer runs,
+ *     pass by pass as {@link SortedFileMergeService} does, and every merged group is checkpointed.</li>
+ * </ol>
+ * A rerun with the same job id resumes from the last checkpoint: it reads the input from the checkpointed offset,
+ * or truncates the output to the checkpointed offset and skips the names already merged from every run.
+ * Runs are merged stably in input order, so the output is the same as that of an uninterrupted run, and of a stable sort.
+ * The time spent persisting checkpoints is measured and reported as the checkpoint overhead.
+ */
+@Service
+public class CheckpointedSortJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointedSortJobService.class);
+
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+    private static final String RUN_FILE_FORMAT = "run-%05d.txt";
+
+    private static final String MERGED_RUN_FILE_FORMAT = "merged-%d-%05d.txt"; // by merge pass and group
+
+    @Value("${app.job.work-dir:files/jobs}")
+    private String workDir = "files/jobs";
+
+    @Value("${app.job.run-size:1000000}")
+    private int runSize = 1_000_000;
+
+    @Value("${app.job.checkpoint-every:1000000}")
+    private long checkpointEvery = 1_000_000;
+
+    @Value("${app.merge.max-open-files:64}")
+    private int maxOpenFiles = 64;
+
+    private Consumer<Checkpoint> checkpointListener = checkpoint -> {};
+
+    public void setWorkDir(String workDir) {
+        this.workDir = workDir;
+    }
+
+    public void setRunSize(int runSize) {
+        this.runSize = runSize;
+    }
+
+    public void setCheckpointEvery(long checkpointEvery) {
+        this.checkpointEvery = checkpointEvery;
+    }
+
+    public void setMaxOpenFiles(int maxOpenFiles) {
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * @param checkpointListener called after every checkpoint is on disk, e.g. to report progress
+     */
+    public void setCheckpointListener(Consumer<Checkpoint> checkpointListener) {
+        this.checkpointListener = checkpointListener;
+    }
+
+    public enum Phase { RUNS, MERGE, DONE }
+
+    /**
+     * Progress of a job, as persisted.
+     * @param phase the phase the job is in
+     * @param inputOffset input bytes consumed into persisted runs
+     * @param lineNumber input lines consumed into persisted runs, to number the rejected lines of the runs after a resume
+     * @param runs number of persisted runs
+     * @param mergePass number of completed passes merging groups of runs into fewer runs, 0 while all runs fit one merge
+     * @param mergedGroups groups of runs merged so far in the current pass
+     * @param outputOffset output bytes written and flushed by the merge
+     * @param mergedFromRuns names merged into the output from every run of the last pass
+     */
+    public record Checkpoint(Phase phase, long inputOffset, long lineNumber, int runs, int mergePass, int mergedGroups,
+                             long outputOffset, long[] mergedFromRuns) {
+
+        @Override
+        public String toString() {
+            return "Checkpoint[phase=" + phase + ", inputOffset=" + inputOffset + ", lineNumber=" + lineNumber + ", runs=" + runs
+                + ", mergePass=" + mergePass + ", mergedGroups=" + mergedGroups
+                + ", outputOffset=" + outputOffset + ", mergedFromRuns=" + Arrays.toString(mergedFromRuns) + "]";
+        }
+    }
+
+    /**
+     * Outcome of one invocation of a job.
+     * @param resumed whether the job resumed from an earlier checkpoint
+     * @param names names written to the output by the merge, over all invocations
+     * @param runs number of runs merged
+     * @param checkpoints checkpoints written by this invocation
+     * @param checkpointMillis time this invocation spent persisting checkpoints (flush, fsync, atomic rename)
+     * @param totalMillis time this invocation took
+     */
+    public record JobResult(boolean resumed, long names, int runs, long checkpoints, long checkpointMillis, long totalMillis) {}
+
+    /**
+     * Sorts the input file into the output file, resuming the job with the given id if it was interrupted.
+     * @param jobId identifies the job, and its work directory; reruns must use the same input and output files
+     * @param inputFilePath the path to the input file
+     * @param outputFilePath the path to the output file
+     * @return counts and timings of this invocation
+     * @throws IllegalStateException if the job was checkpointed for other files, or the input file changed since
+     */
+    public JobResult sortJob(@Nonnull String jobId, @Nonnull String inputFilePath, @Nonnull String outputFilePath) {
+
+        if (jobId.isBlank() || !jobId.matches("[\\w.-]+")) {
+            throw new IllegalArgumentException("Job id must be made of letters, digits, '.', '_' or '-', but was: " + jobId);
+        }
+        if (runSize < 1 || checkpointEvery < 1) {
+            throw new IllegalArgumentException("app.job.run-size and app.job.checkpoint-every must be positive, but were "
+                + runSize + " and " + checkpointEvery);
+        }
+        if (maxOpenFiles < 2) {
+            throw new IllegalArgumentException("app.merge.max-open-files must be at least 2, but was " + maxOpenFiles);
+        }
+
+        final long start = System.nanoTime();
+        final Path jobDir = Paths.get(workDir).resolve(jobId);
+        final Path input = Paths.get(inputFilePath);
+        final Path output = Paths.get(outputFilePath);
+
+        try {
+            Files.createDirectories(jobDir);
+            final Job job = new Job(jobId, jobDir, input, output);
+            final boolean resumed = job.load();
+            if (job.phase == Phase.DONE) {
+                logger.info("Job {} is already complete, see: {}", jobId, outputFilePath);
+            }
+
+            if (job.phase == Phase.RUNS) {
+                job.writeRuns();
+            }
+            if (job.phase == Phase.MERGE) {
+                job.merge();
+            }
+
+            final JobResult result = new JobResult(resumed, Arrays.stream(job.mergedFromRuns).sum(), job.runs,
+                job.checkpoints, job.checkpointNanos / 1_000_000, (System.nanoTime() - start) / 1_000_000);
+
+            logger.info("PERFORMANCE: Job {} {} in {} ms: {} names from {} runs",
+                jobId, resumed ? "resumed and completed" : "completed", result.totalMillis(), result.names(), result.runs());
+            logger.info("PERFORMANCE: Checkpoint overhead of job {}: {} checkpoints in {} ms ({}% of the run time)",
+                jobId, result.checkpoints(), result.checkpointMillis(),
+                String.format("%.1f", result.totalMillis() == 0 ? 0 : 100.0 * result.checkpointMillis() / result.totalMillis()));
+            return result;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Sort job " + jobId + " failed, rerun it to resume from the last checkpoint", e);
+        }
+    }
+
+    /**
+     * State of one job, as loaded from and saved to its checkpoint file.
+     */
+    private final class Job {
+
+        private final String jobId;
+
+        private final Path jobDir;
+
+        private final Path input;
+
+        private final Path output;
+
+        private Phase phase = Phase.RUNS;
+
+        private long inputOffset;
+
+        private long lineNumber;
+
+        private int runs;
+
+        private int mergePass;
+
+        private int mergeRuns; // runs to merge in the current pass
+
+        private int mergeFanIn; // runs merged per group, kept for the whole job so a resumed pass keeps its groups
+
+        private int mergedGroups;
+
+        private long outputOffset;
+
+        private long[] mergedFromRuns = new long[0];
+
+        private long checkpoints;
+
+        private long checkpointNanos;
+
+        private Job(String jobId, Path jobDir, Path input, Path output) {
+            this.jobId = jobId;
+            this.jobDir = jobDir;
+            this.input = input;
+            this.output = output;
+        }
+
+        /**
+         * @return whether an earlier checkpoint was found
+         */
+        boolean load() throws IOException {
+
+            final Path checkpointFile = jobDir.resolve(CHECKPOINT_FILE);
+            if (!Files.exists(checkpointFile)) {
+                return false;
+            }
+
+            final Properties properties = new Properties();
+            try (BufferedReader reader = Files.newBufferedReader(checkpointFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+
+            if (!input.toAbsolutePath().toString().equals(properties.getProperty("input"))
+                || !output.toAbsolutePath().toString().equals(properties.getProperty("output"))) {
+                throw new IllegalStateException("Job " + jobId + " was started for " + properties.getProperty("input")
+                    + " -> " + properties.getProperty("output") + ", use another job id for other files");
+            }
+            if (Files.size(input) != Long.parseLong(properties.getProperty("inputSize"))
+                || Files.getLastModifiedTime(input).toMillis() != Long.parseLong(properties.getProperty("inputModified"))) {
+                throw new IllegalStateException("Input file changed since job " + jobId + " started: " + input);
+            }
+
+            phase = Phase.valueOf(properties.getProperty("phase"));
+            inputOffset = Long.parseLong(properties.getProperty("inputOffset"));
+            lineNumber = Long.parseLong(properties.getProperty("lineNumber"));
+            runs = Integer.parseInt(properties.getProperty("runs"));
+            mergePass = Integer.parseInt(properties.getProperty("mergePass", "0"));
+            mergeRuns = Integer.parseInt(properties.getProperty("mergeRuns", Integer.toString(runs)));
+            mergeFanIn = Integer.parseInt(properties.getProperty("mergeFanIn", Integer.toString(maxOpenFiles)));
+            mergedGroups = Integer.parseInt(properties.getProperty("mergedGroups", "0"));
+            outputOffset = Long.parseLong(properties.getProperty("outputOffset"));
+            final String merged = properties.getProperty("mergedFromRuns");
+            mergedFromRuns = merged.isEmpty() ? new long[0] : Arrays.stream(merged.split(",")).mapToLong(Long::parseLong).toArray();
+
+            logger.info("Resuming job {} from {}", jobId, checkpoint());
+            return true;
+        }
+
+        /**
+         * Persists the progress atomically: a crash leaves either the previous or the new checkpoint.
+         */
+        void save() throws IOException {
+
+            final long start = System.nanoTime();
+
+            final Properties properties = new Properties();
+            properties.setProperty("input", input.toAbsolutePath().toString());
+            properties.setProperty("output", output.toAbsolutePath().toString());
+            properties.setProperty("inputSize", Long.toString(Files.size(input)));
+            properties.setProperty("inputModified", Long.toString(Files.getLastModifiedTime(input).toMillis()));
+            properties.setProperty("phase", phase.name());
+            properties.setProperty("inputOffset", Long.toString(inputOffset));
+            properties.setProperty("lineNumber", Long.toString(lineNumber));
+            properties.setProperty("runs", Integer.toString(runs));
+            properties.setProperty("mergePass", Integer.toString(mergePass));
+            properties.setProperty("mergeRuns", Integer.toString(mergeRuns));
+            properties.setProperty("mergeFanIn", Integer.toString(mergeFanIn));
+            properties.setProperty("mergedGroups", Integer.toString(mergedGroups));
+            properties.setProperty("outputOffset", Long.toString(outputOffset));
+            properties.setProperty("mergedFromRuns",
+                Arrays.stream(mergedFromRuns).mapToObj(Long::toString).collect(Collectors.joining(",")));
+
+            final Path temporary = jobDir.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final Writer writer = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+                properties.store(writer, "Sort job " + jobId);
+                writer.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, jobDir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            checkpoints++;
+            checkpointNanos += System.nanoTime() - start;
+            checkpointListener.accept(checkpoint());
+        }
+
+        Checkpoint checkpoint() {
+            return new Checkpoint(phase, inputOffset, lineNumber, runs, mergePass, mergedGroups, outputOffset, mergedFromRuns.clone());
+        }
+
+        Path runFile(int run) {
+            return jobDir.resolve(String.format(RUN_FILE_FORMAT, run));
+        }
+
+        /**
+         * @return the given run of the given merge pass: the persisted runs, then the merged groups of every pass
+         */
+        Path runFile(int pass, int run) {
+            return pass == 0 ? runFile(run) : jobDir.resolve(String.format(MERGED_RUN_FILE_FORMAT, pass, run));
+        }
+
+        /**
+         * Reads the input from the checkpointed offset on, persisting a sorted run every {@code runSize} names.
+         */
+        void writeRuns() throws IOException {
+
+            final List<Name> chunk = new ArrayList<>(Math.min(runSize, 1 << 20));
+
+            try (OffsetLineReader reader = new OffsetLineReader(input, inputOffset)) {
+                RejectedRecordSink rejectedRecords = openRejectedRecordSink();
+                try {
+                    while (reader.next()) {
+                        lineNumber++;
+                        final String line = reader.line();
+                        final Name name = Name.parse(line);
+                        if (name != null) {
+                            chunk.add(name);
+                        } else {
+                            rejectedRecords.reject(lineNumber, Name.validate(line), line);
+                        }
+
+                        if (chunk.size() == runSize) {
+                            rejectedRecords.close();
+                            persistRun(chunk, reader.nextOffset());
+                            rejectedRecords = openRejectedRecordSink();
+                        }
+                    }
+                } finally {
+                    rejectedRecords.close();
+                }
+
+                if (!chunk.isEmpty() || reader.nextOffset() != inputOffset) {
+                    persistRun(chunk, reader.nextOffset());
+                }
+            }
+
+            phase = Phase.MERGE;
+            mergeRuns = runs;
+            mergeFanIn = maxOpenFiles;
+            mergedFromRuns = new long[runs];
+            outputOffset = 0;
+            save();
+        }
+
+        /**
+         * Rejected lines of every run go to a sidecar next to the run, so a resumed job keeps those of the earlier runs.
+         */
+        private RejectedRecordSink openRejectedRecordSink() {
+            return new RejectedRecordSink(input.toString(), jobDir.resolve(String.format(RUN_FILE_FORMAT, runs) + RejectedRecordSink.SIDECAR_SUFFIX), logger);
+        }
+
+        private void persistRun(List<Name> chunk, long consumedOffset) throws IOException {
+
+            chunk.sort(null); // stable, so equal names keep their input order within the run
+
+            final Path runFile = runFile(runs);
+            final Path temporary = jobDir.resolve(runFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16);
+                for (Name name : chunk) {
+                    writer.write(name.toString());
+                    writer.newLine();
+                }
+                writer.flush();
+                final long start = System.nanoTime();
+                channel.force(true);
+                checkpointNanos += System.nanoTime() - start;
+            }
+            Files.move(temporary, runFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            logger.debug("Job {}: persisted run {} with {} names", jobId, runs, chunk.size());
+            chunk.clear();
+            runs++;
+            inputOffset = consumedOffset;
+            save();
+        }
+
+        /**
+         * Merges the runs into the output from the checkpointed position on,
+         * after merging groups of runs until one merge can open all of them at once.
+         */
+        void merge() throws IOException {
+            while (mergeRuns > mergeFanIn) {
+                mergeGroups();
+            }
+            mergeIntoOutput();
+        }
+
+        /**
+         * Runs one merge pass from the checkpointed group on: every group of {@code mergeFanIn} consecutive runs is merged
+         * into one run of the next pass, so equal names keep their input order.
+         */
+        private void mergeGroups() throws IOException {
+
+            final int groups = (mergeRuns + mergeFanIn - 1) / mergeFanIn;
+            for (int group = mergedGroups; group < groups; group++) {
+
+                final Path mergedRun = runFile(mergePass + 1, group);
+                final Path temporary = jobDir.resolve(mergedRun.getFileName() + ".tmp");
+                final List<RunReader> readers = new ArrayList<>(mergeFanIn);
+                try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    final BufferedWriter writer = new BufferedWriter(
+                        new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16);
+
+                    for (int run = group * mergeFanIn; run < Math.min((group + 1) * mergeFanIn, mergeRuns); run++) {
+                        readers.add(new RunReader(runFile(mergePass, run), readers.size(), 0));
+                    }
+                    final LoserTree<RunReader.Entry> loserTree = new LoserTree<>(readers);
+                    while (loserTree.hasNext()) {
+                        writer.write(loserTree.next().line());
+                        writer.newLine();
+                    }
+                    writer.flush();
+                    final long start = System.nanoTime();
+                    channel.force(true);
+                    checkpointNanos += System.nanoTime() - start;
+
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+
+                } finally {
+                    for (RunReader reader : readers) {
+                        reader.close();
+                    }
+                }
+                Files.move(temporary, mergedRun, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+                mergedGroups = group + 1;
+                save();
+            }
+
+            logger.debug("Job {}: merge pass {} merged {} runs into {}", jobId, mergePass + 1, mergeRuns, groups);
+            for (int run = 0; run < mergeRuns; run++) {
+                Files.deleteIfExists(runFile(mergePass, run));
+            }
+            mergePass++;
+            mergeRuns = groups;
+            mergedGroups = 0;
+            mergedFromRuns = new long[groups];
+            save();
+        }
+
+        /**
+         * Merges the runs of the last pass into the output from the checkpointed position on.
+         */
+        private void mergeIntoOutput() throws IOException {
+
+            final List<RunReader> readers = new ArrayList<>(mergeRuns);
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                // drop whatever was written after the last checkpoint, it is merged again
+                channel.truncate(outputOffset);
+                channel.position(outputOffset);
+                final BufferedWriter writer = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16);
+
+                for (int run = 0; run < mergeRuns; run++) {
+                    readers.add(new RunReader(runFile(mergePass, run), run, mergedFromRuns[run]));
+                }
+
+                final LoserTree<RunReader.Entry> loserTree = new LoserTree<>(readers);
+                long sinceCheckpoint = 0;
+                while (loserTree.hasNext()) {
+                    final RunReader.Entry entry = loserTree.next();
+                    writer.write(entry.line());
+                    writer.newLine();
+                    mergedFromRuns[entry.run()]++;
+
+                    if (++sinceCheckpoint == checkpointEvery) {
+                        checkpointOutput(writer, channel);
+                        sinceCheckpoint = 0;
+                    }
+                }
+
+                phase = Phase.DONE;
+                checkpointOutput(writer, channel);
+
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+
+            } finally {
+                for (RunReader reader : readers) {
+                    reader.close();
+                }
+            }
+
+            for (int run = 0; run < mergeRuns; run++) {
+                Files.deleteIfExists(runFile(mergePass, run));
+            }
+        }
+
+        private void checkpointOutput(BufferedWriter writer, FileChannel channel) throws IOException {
+            final long start = System.nanoTime();
+            writer.flush();
+            channel.force(false);
+            outputOffset = channel.position();
+            checkpointNanos += System.nanoTime() - start;
+            save();
+        }
+    }
+
+    /**
+     * Reads the names of one run, skipping those already merged. Keeps the line as written, so it is copied without re-formatting.
+     */
+    private static final class RunReader implements Iterator<RunReader.Entry>, Closeable {
+
+        /**
+         * A name of a run, ordered by name; the loser tree takes equal names from the lower run first, i.e. in input order.
+         */
+        record Entry(Name name, String line, int run) implements Comparable<Entry> {
+            @Override
+            public int compareTo(Entry other) {
+                return name.compareTo(other.name);
+            }
+        }
+
+        private final BufferedReader reader;
+
+        private final int run;
+
+        private Entry next;
+
+        private RunReader(Path runFile, int run, long skip) throws IOException {
+            this.reader = Files.newBufferedReader(runFile, StandardCharsets.UTF_8);
+            this.run = run;
+            for (long i = 0; i < skip; i++) {
+                if (reader.readLine() == null) {
+                    break;
+                }
+            }
+            advance();
+        }
+
+        private void advance() {
+            try {
+                final String line = reader.readLine();
+                next = line == null ? null : new Entry(new Name(line), line, run);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Entry current = next;
+            advance();
+            return current;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
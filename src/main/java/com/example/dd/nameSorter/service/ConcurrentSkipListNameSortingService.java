@@ -0,0 +1,267 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.ConcurrentSkipListBag;
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Parses the input file on several threads, which all insert into one {@link ConcurrentSkipListBag}.
+ * The file is split into byte ranges, one per parser thread, cut at line starts; every thread reads, validates and
+ * inserts the lines of its range, with the byte offset of the line as its ordinal, so equal names keep their input order.
+ * Rejected lines are spilled per range to a temporary part file, as their line numbers are only known once all earlier
+ * ranges are parsed, and the parts are passed on to the {@link RejectedRecordSink} in range order, so dirty input does not
+ * hold its rejected lines in memory.
+ * Standard input and rows ({@code app.rows.delimiter}) are parsed on the calling thread.
+ */
+@Service
+@ConditionalOnProperty(name = "app.service.type", havingValue = "concurrent", matchIfMissing = false)
+public class ConcurrentSkipListNameSortingService extends FileContentSortingEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentSkipListNameSortingService.class);
+
+    // below this many bytes per thread, starting the threads costs more than parsing in parallel saves
+    static final long MIN_BYTES_PER_THREAD = 64 * 1024;
+
+    @Value("${app.service.parser-threads:0}")
+    private int parserThreads; // 0: one thread per available processor
+
+    public void setParserThreads(int parserThreads) {
+        if (parserThreads < 0) {
+            throw new IllegalArgumentException("app.service.parser-threads must not be negative, but was: " + parserThreads);
+        }
+        this.parserThreads = parserThreads;
+    }
+
+    @Override
+    protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
+
+        final ConcurrentSkipListBag<Name> nameBag = new ConcurrentSkipListBag<>();
+
+        if (STANDARD_STREAM.equals(inputFilePath) || isRowMode()) {
+            forEachNameInFile(inputFilePath, nameBag::insert);
+        } else {
+            parseInParallel(Paths.get(inputFilePath), nameBag);
+        }
+
+        return nameBag.traverseInOrder();
+    }
+
+    @Override
+    protected @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+
+        // No sorting is needed here because the names are already sorted in the skip list.
+
+        return writeNamesInOrder(nameList, outputFilePath);
+    }
+
+    private void parseInParallel(@Nonnull Path path, @Nonnull ConcurrentSkipListBag<Name> nameBag) {
+
+        final long fileSize;
+        try {
+            fileSize = Files.size(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read names from file: " + path, e);
+        }
+
+        final int threads = (int) Math.max(1, Math.min(
+            parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors(),
+            fileSize / MIN_BYTES_PER_THREAD));
+
+        // the reporter is bound to this thread, the parser threads update its counters
+        final ProgressReporter progress = ProgressReporter.current();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<RangeResult>> results = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                final long start = fileSize * i / threads;
+                final long end = fileSize * (i + 1) / threads;
+                results.add(executor.submit(() -> parseRange(path, start, end, nameBag, progress)));
+            }
+
+            // rejected lines are numbered once the line counts of all earlier ranges are known
+            try (RejectedRecordSink rejectedRecords = openRejectedRecordSink(path)) {
+                long linesBefore = 0;
+                for (Future<RangeResult> result : results) {
+                    final RangeResult range = result.get();
+                    range.rejectedLines().replay(rejectedRecords, linesBefore);
+                    linesBefore += range.lines();
+                }
+            }
+            logger.debug("Parsed {} names of {} on {} threads", nameBag.size(), path, threads);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted reading names from file: " + path, e);
+
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new RuntimeException("Failed to read names from file: " + path, e.getCause());
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write rejected lines of file: " + path, e);
+
+        } finally {
+            // interrupts the ranges still parsing after a failure, which then delete their own part
+            executor.shutdownNow();
+            for (Future<RangeResult> result : results) {
+                deleteRejectedPart(result);
+            }
+        }
+    }
+
+    private static void deleteRejectedPart(Future<RangeResult> result) {
+        try {
+            result.get().rejectedLines().delete();
+        } catch (ExecutionException | CancellationException e) {
+            // the range failed and deleted its part itself
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Failed to delete rejected lines part: {}", e.getMessage());
+        }
+    }
+
+    private record RangeResult(long lines, RejectedPart rejectedLines) {}
+
+    /**
+     * The lines rejected in one range, with their line numbers in the range, written to a temporary file
+     * created on the first rejected line. Not thread-safe: one part per range.
+     */
+    private static final class RejectedPart {
+
+        private static final Name.Validation[] REASONS = Name.Validation.values();
+
+        private Path file;
+
+        private DataOutputStream output;
+
+        private long count;
+
+        void add(long lineInRange, Name.Validation reason, String line) throws IOException {
+            if (output == null) {
+                file = Files.createTempFile("rejected-", ".part");
+                output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            }
+            final byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            output.writeLong(lineInRange);
+            output.writeByte(reason.ordinal());
+            output.writeInt(bytes.length);
+            output.write(bytes);
+            count++;
+        }
+
+        /**
+         * Closes the file once the range is parsed.
+         */
+        void finish() throws IOException {
+            if (output != null) {
+                output.close();
+            }
+        }
+
+        /**
+         * Passes the rejected lines on to the sink, numbered after the lines of all earlier ranges.
+         */
+        void replay(RejectedRecordSink rejectedRecords, long linesBefore) throws IOException {
+            if (count == 0) {
+                return;
+            }
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                for (long i = 0; i < count; i++) {
+                    final long lineInRange = input.readLong();
+                    final Name.Validation reason = REASONS[input.readByte()];
+                    final byte[] bytes = new byte[input.readInt()];
+                    input.readFully(bytes);
+                    rejectedRecords.reject(linesBefore + lineInRange, reason, new String(bytes, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        void delete() throws IOException {
+            finish();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Parses the lines starting in [start, end): a line starting before the range belongs to the previous range.
+     */
+    private static RangeResult parseRange(Path path, long start, long end, ConcurrentSkipListBag<Name> nameBag,
+                                          ProgressReporter progress) throws IOException {
+
+        final RejectedPart rejectedLines = new RejectedPart();
+        long lines = 0;
+
+        final ProgressReporter.Counts counts = ProgressReporter.counts(progress);
+
+        // fail on malformed input like the buffered reader of the other engines, rather than replace it
+        final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        // start one byte early and skip up to the end of that line, which is empty if the range starts a line
+        try (OffsetLineReader reader = new OffsetLineReader(path, Math.max(start - 1, 0))) {
+            if (start > 0) {
+                reader.next();
+            }
+
+            while (reader.next() && reader.offset() < end) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Stopped parsing " + path + " after another range failed");
+                }
+                lines++;
+                counts.lineParsed(reader.nextOffset() - reader.offset());
+                final String line = reader.line(decoder);
+                final Name name = Name.parse(line);
+                if (name != null) {
+                    nameBag.insert(name, reader.offset());
+                    counts.nameInserted();
+                } else {
+                    rejectedLines.add(lines, Name.validate(line), line);
+                }
+            }
+            rejectedLines.finish();
+
+        } catch (IOException | RuntimeException e) {
+            try {
+                rejectedLines.delete();
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+
+        } finally {
+            counts.flush();
+        }
+        return new RangeResult(lines, rejectedLines);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.model.NameDictionary;
+import jakarta.annotation.Nonnull;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "app.service.type", havingValue = "dictionary", matchIfMissing = false)
+public class DictionaryEncodedNameSortingService extends FileContentSortingEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryEncodedNameSortingService.class);
+
+    @Override
+    protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
+
+        final NameDictionary nameDictionary = new NameDictionary();
+
+        forEachNameInFile(inputFilePath, nameDictionary::add);
+
+        logger.debug("Encoded {} names with {} distinct surnames and {} distinct given names",
+            nameDictionary.size(), nameDictionary.distinctSurnames(), nameDictionary.distinctGivenNames());
+
+        return nameDictionary.sortedNames();
+    }
+
+    @Override
+    protected @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+
+        // No sorting is needed here because the names are sorted by rank in the dictionary.
+
+        return writeNamesInOrder(nameList, outputFilePath);
+    }
+}
@@ -1,19 +1,77 @@
 package com.example.dd.nameSorter.service;
 
+import com.example.dd.nameSorter.model.IndexedName;
 import com.example.dd.nameSorter.model.Name;
 import jakarta.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 public abstract class FileContentSortingEvaluationService {
 
+    /**
+     * Input or output path standing for standard input or standard output, as in Unix pipelines.
+     */
+    public static final String STANDARD_STREAM = "-";
+
+    private static final String STANDARD_INPUT_NAME = "stdin";
+
+    private static final int STANDARD_STREAM_BUFFER_SIZE = 1024 * 1024;
+
     // this.getClass(): to support subclass logging, such that logs show the actual implementing class
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+    private String rejectedRecordsDir = "logs";
+
+    private static final char QUOTE = '"';
+
+    private static final int MAX_BUFFERED_ROW_BYTES = 64 * 1024;
+
+    // Rows of a delimited file (CSV, TSV) are sorted by one of their columns when a delimiter is set
+    private String rowDelimiter = "";
+
+    private int nameColumn;
+
+    private boolean headerRow;
+
+    // The sorted names are split into this many shard files when more than one, see ShardedOutputWriter
+    private int outputShards = 1;
+
+    private String shardBy = ShardedOutputWriter.SPLIT_BY_SURNAME;
+
+    // Progress of every sort is sampled and logged at this interval, see ProgressReporter; 0 disables it
+    private long progressIntervalMillis = 10_000;
+
+    private Consumer<ProgressReporter.Progress> progressListener = progress -> {};
+
     /**
      * Reads names from the specified input file.
      * Sorting is performed here when using a sorted data structure.
@@ -34,9 +92,420 @@ public abstract class FileContentSortingEvaluationService {
      */
     protected abstract @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath);
 
+    /**
+     * Parses every line of the input file into a name and passes it on, in file order.
+     * When {@code app.rows.delimiter} is set, every line is a row and the name is read from its {@code app.rows.name-column},
+     * see {@link #forEachRowInFile}.
+     * Empty lines and invalid names are skipped; they are counted per reason and written to a sidecar file
+     * in {@code app.rejected.dir} rather than logged one by one, see {@link RejectedRecordSink}.
+     * @param inputFilePath the path to the input file, or {@link #STANDARD_STREAM} to read standard input as it arrives
+     * @param action receives each valid name
+     */
+    protected void forEachNameInFile(@Nonnull String inputFilePath, @Nonnull Consumer<Name> action) {
+
+        final boolean standardInput = STANDARD_STREAM.equals(inputFilePath);
+        final Path path = Paths.get(standardInput ? STANDARD_INPUT_NAME : inputFilePath);
+
+        if (isRowMode()) {
+            if (standardInput) {
+                // rows are copied to the output with positional reads, which standard input does not allow
+                throw new IllegalArgumentException("Rows (app.rows.delimiter) cannot be sorted from standard input, use an input file");
+            }
+            forEachRowInFile(path, action);
+            return;
+        }
+
+        final ProgressReporter progress = ProgressReporter.current();
+
+        try (
+            // the same reader as Files.newBufferedReader, which reports malformed input rather than replacing it
+            final BufferedReader reader = standardInput
+                ? new BufferedReader(new InputStreamReader(countBytes(System.in, progress), StandardCharsets.UTF_8.newDecoder()), STANDARD_STREAM_BUFFER_SIZE)
+                : new BufferedReader(new InputStreamReader(countBytes(Files.newInputStream(path), progress), StandardCharsets.UTF_8.newDecoder()));
+            final RejectedRecordSink rejectedRecords = openRejectedRecordSink(path)
+        ) {
+            final ProgressReporter.Counts counts = ProgressReporter.counts(progress);
+            try {
+                long lineNumber = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    counts.lineParsed();
+                    final Name name = Name.parse(line);
+                    if (name != null) {
+                        action.accept(name);
+                        counts.nameInserted();
+                    } else {
+                        rejectedRecords.reject(lineNumber, Name.validate(line), line);
+                    }
+                }
+            } finally {
+                counts.flush();
+            }
+
+        } catch (IOException e) {
+            logger.error("Error reading file: {}", e.getMessage());
+            throw new RuntimeException("Failed to read names from file: " + inputFilePath, e);
+        }
+    }
+
+    private static InputStream countBytes(@Nonnull InputStream input, ProgressReporter progress) {
+        return progress == null ? input : progress.countBytes(input);
+    }
+
+    /**
+     * Reads the rows of a delimited file as {@link IndexedName} entries: the name in the configured column,
+     * and the byte offset and length of the row, such that only the sort keys are held in memory.
+     * Fields may be enclosed in double quotes, with "" for a quote inside; a quoted field cannot span lines.
+     * Rows without the name column are rejected as {@link Name.Validation#EMPTY}.
+     */
+    private void forEachRowInFile(@Nonnull Path path, @Nonnull Consumer<Name> action) {
+
+        final char delimiter = rowDelimiter();
+        final ProgressReporter progress = ProgressReporter.current();
+
+        try (
+            final OffsetLineReader reader = new OffsetLineReader(path);
+            final RejectedRecordSink rejectedRecords = openRejectedRecordSink(path)
+        ) {
+            long lineNumber = 0;
+            if (headerRow && reader.next()) {
+                lineNumber++;
+            }
+
+            final ProgressReporter.Counts counts = ProgressReporter.counts(progress);
+            try {
+                while (reader.next()) {
+                    lineNumber++;
+                    counts.lineParsed(reader.nextOffset() - reader.offset());
+                    final String row = reader.line();
+                    final String fullName = column(row, delimiter, nameColumn);
+                    final Name name = Name.parse(fullName);
+                    if (name != null) {
+                        action.accept(new IndexedName(name.getGivenName(), name.getLastName(), path, reader.offset(), reader.length()));
+                        counts.nameInserted();
+                    } else {
+                        rejectedRecords.reject(lineNumber, Name.validate(fullName), row);
+                    }
+                }
+            } finally {
+                counts.flush();
+            }
+
+        } catch (IOException e) {
+            logger.error("Error reading file: {}", e.getMessage());
+            throw new RuntimeException("Failed to read rows from file: " + path, e);
+        }
+    }
+
+    /**
+     * Extracts a field from a delimited row.
+     * @return the unquoted field, or null if the row has fewer fields
+     */
+    static String column(@Nonnull String row, char delimiter, int index) {
+
+        int start = 0;
+        for (int field = 0; start <= row.length(); field++) {
+
+            if (start < row.length() && row.charAt(start) == QUOTE) {
+                // Quoted field: runs up to the closing quote, "" is an escaped quote
+                final StringBuilder value = new StringBuilder();
+                int i = start + 1;
+                while (i < row.length()) {
+                    final char c = row.charAt(i++);
+                    if (c != QUOTE) {
+                        value.append(c);
+                    } else if (i < row.length() && row.charAt(i) == QUOTE) {
+                        value.append(QUOTE);
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                if (field == index) {
+                    return value.toString();
+                }
+                final int end = row.indexOf(delimiter, i);
+                start = end < 0 ? row.length() + 1 : end + 1;
+
+            } else {
+                int end = row.indexOf(delimiter, start);
+                if (end < 0) {
+                    end = row.length();
+                }
+                if (field == index) {
+                    return row.substring(start, end);
+                }
+                start = end + 1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opens the sink for the lines rejected while reading the given input file.
+     * The sidecar file is named after the input path, in {@code app.rejected.dir}; a blank directory disables it,
+     * see {@link RejectedRecordSink#sidecarPath(String, Path)}.
+     * @param inputPath the input file about to be read
+     * @return a new sink, to be closed once the file is read
+     */
+    protected RejectedRecordSink openRejectedRecordSink(@Nonnull Path inputPath) {
+        return new RejectedRecordSink(inputPath.toString(), RejectedRecordSink.sidecarPath(rejectedRecordsDir, inputPath), logger);
+    }
+
+    @Value("${app.rejected.dir:logs}")
+    public void setRejectedRecordsDir(String rejectedRecordsDir) {
+        this.rejectedRecordsDir = rejectedRecordsDir;
+    }
+
+    @Value("${app.rows.delimiter:}")
+    public void setRowDelimiter(String rowDelimiter) {
+        if (rowDelimiter != null && rowDelimiter.length() > 1) {
+            throw new IllegalArgumentException("app.rows.delimiter must be a single character, but was: " + rowDelimiter);
+        }
+        this.rowDelimiter = rowDelimiter;
+    }
+
+    @Value("${app.rows.name-column:0}")
+    public void setNameColumn(int nameColumn) {
+        if (nameColumn < 0) {
+            throw new IllegalArgumentException("app.rows.name-column must not be negative, but was: " + nameColumn);
+        }
+        this.nameColumn = nameColumn;
+    }
+
+    @Value("${app.rows.header:false}")
+    public void setHeaderRow(boolean headerRow) {
+        this.headerRow = headerRow;
+    }
+
+    @Value("${app.output.shards:1}")
+    public void setOutputShards(int outputShards) {
+        if (outputShards < 1) {
+            throw new IllegalArgumentException("app.output.shards must be at least 1, but was: " + outputShards);
+        }
+        this.outputShards = outputShards;
+    }
+
+    @Value("${app.output.shard-by:surname}")
+    public void setShardBy(String shardBy) {
+        if (!ShardedOutputWriter.SPLIT_BY_COUNT.equals(shardBy) && !ShardedOutputWriter.SPLIT_BY_SURNAME.equals(shardBy)) {
+            throw new IllegalArgumentException("app.output.shard-by must be one of: "
+                + ShardedOutputWriter.SPLIT_BY_COUNT + ", " + ShardedOutputWriter.SPLIT_BY_SURNAME + ", but was: " + shardBy);
+        }
+        this.shardBy = shardBy;
+    }
+
+    @Value("${app.progress.interval-millis:10000}")
+    public void setProgressIntervalMillis(long progressIntervalMillis) {
+        if (progressIntervalMillis < 0) {
+            throw new IllegalArgumentException("app.progress.interval-millis must not be negative, but was: " + progressIntervalMillis);
+        }
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * @param progressListener receives every progress sample of every sort, e.g. to expose it as a metric
+     */
+    public void setProgressListener(@Nonnull Consumer<ProgressReporter.Progress> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    protected boolean isRowMode() {
+        return rowDelimiter != null && !rowDelimiter.isEmpty();
+    }
+
+    private char rowDelimiter() {
+        return rowDelimiter.charAt(0);
+    }
+
+    /**
+     * Writes names to the output file in the order given, i.e. without sorting them.
+     * In row mode, the full rows of the names are written instead, see {@link #writeRowsInOrder}.
+     * With {@code app.output.shards} above one, the names are split into that many shard files written in parallel,
+     * plus a manifest, instead of the output file itself, see {@link ShardedOutputWriter}.
+     * @param nameList the names, already sorted
+     * @param outputFilePath the path to the output file, or {@link #STANDARD_STREAM} for standard output
+     * @return a list of names written to the file
+     */
+    protected @Nonnull List<String> writeNamesInOrder(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+
+        // shards are written on other threads, so the reporter of this thread is passed on
+        final ProgressReporter progress = ProgressReporter.current();
+        if (progress != null) {
+            progress.setPhase(ProgressReporter.Phase.WRITING);
+        }
+
+        if (outputShards > 1) {
+            if (STANDARD_STREAM.equals(outputFilePath)) {
+                throw new IllegalArgumentException("Shards (app.output.shards) cannot be written to standard output, use an output file");
+            }
+            return new ShardedOutputWriter(outputShards, shardBy).write(nameList, outputFilePath,
+                (shard, shardFilePath) -> writeOutputFile(shard, shardFilePath, progress));
+        }
+
+        return writeOutputFile(nameList, outputFilePath, progress);
+    }
+
+    private @Nonnull List<String> writeOutputFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath,
+                                                  ProgressReporter progress) {
+
+        if (isRowMode()) {
+            return writeRowsInOrder(nameList, outputFilePath, progress);
+        }
+
+        final ProgressReporter.Counts counts = ProgressReporter.counts(progress);
+        try (
+            final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(openOutput(outputFilePath), StandardCharsets.UTF_8))
+        ) {
+            return nameList.stream()
+                .map(name -> {
+                    try {
+                        // Write the line and add a separator
+                        writer.write(name.toString());
+                        writer.newLine();
+                        counts.nameWritten();
+                        return name.toString();
+                    } catch (IOException e) {
+                        // Cannot throw checked exceptions from inside a forEach lambda.
+                        // Instead, convert it to a RuntimeException (or log and absorb).
+                        throw new UncheckedIOException("Failed to write line to file: " + name.toString(), e);
+                    }
+                })
+                .toList();
+
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Failed to write sorted names to file: " + outputFilePath, e.getCause());
+
+        } catch (IOException e) {
+            throw new RuntimeException("File IO setup/teardown failed for: " + outputFilePath, e);
+
+        } finally {
+            counts.flush();
+        }
+    }
+
+    /**
+     * Copies the rows of the given {@link IndexedName} entries from their source file to the output file, in the order given.
+     * Rows are read back with positional reads; with a header row, the header of the source is written first.
+     * @return the names of the rows written, in order
+     */
+    private @Nonnull List<String> writeRowsInOrder(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath,
+                                                   ProgressReporter progress) {
+
+        final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        final Map<Path, FileChannel> sources = new HashMap<>();
+        final List<String> names = new ArrayList<>(nameList.size());
+        ByteBuffer row = ByteBuffer.allocate(1024);
+        final ProgressReporter.Counts counts = ProgressReporter.counts(progress);
+
+        try (
+            final OutputStream output = new BufferedOutputStream(openOutput(outputFilePath), MAX_BUFFERED_ROW_BYTES)
+        ) {
+            boolean first = true;
+            for (Name name : nameList) {
+                final IndexedName indexedName = (IndexedName) name;
+
+                if (first && headerRow) {
+                    try (final OffsetLineReader header = new OffsetLineReader(indexedName.getSource())) {
+                        if (header.next()) {
+                            output.write(header.line().getBytes(StandardCharsets.UTF_8));
+                            output.write(lineSeparator);
+                        }
+                    }
+                }
+                first = false;
+
+                FileChannel source = sources.get(indexedName.getSource());
+                if (source == null) {
+                    source = FileChannel.open(indexedName.getSource(), StandardOpenOption.READ);
+                    sources.put(indexedName.getSource(), source);
+                }
+
+                if (row.capacity() < indexedName.getLength()) {
+                    row = ByteBuffer.allocate(Math.max(row.capacity() * 2, indexedName.getLength()));
+                }
+                row.clear().limit(indexedName.getLength());
+                long position = indexedName.getOffset();
+                while (row.hasRemaining()) {
+                    final int read = source.read(row, position);
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of file " + indexedName.getSource() + " at offset " + position);
+                    }
+                    position += read;
+                }
+
+                output.write(row.array(), 0, indexedName.getLength());
+                output.write(lineSeparator);
+                names.add(name.toString());
+                counts.nameWritten();
+            }
+            return names;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write sorted rows to file: " + outputFilePath, e);
+
+        } finally {
+            counts.flush();
+            for (FileChannel source : sources.values()) {
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    logger.warn("Failed to close file: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the output file for writing, truncating it, or standard output behind a large buffer.
+     * Closing the stream on standard output only flushes it, such that later sorts and logs of the JVM can still write to it.
+     */
+    private OutputStream openOutput(@Nonnull String outputFilePath) throws IOException {
+        if (STANDARD_STREAM.equals(outputFilePath)) {
+            return new BufferedOutputStream(new FilterOutputStream(openStandardOutput()) {
+                @Override
+                public void write(@Nonnull byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length); // not byte by byte, as FilterOutputStream does
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            }, STANDARD_STREAM_BUFFER_SIZE);
+        }
+        return Files.newOutputStream(
+            Paths.get(outputFilePath),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Standard output of the process, written to directly rather than through {@link System#out},
+     * which the command line application points at standard error while streaming, to keep logs out of the data.
+     * @return a stream on the standard output file descriptor
+     */
+    protected OutputStream openStandardOutput() {
+        return new FileOutputStream(FileDescriptor.out);
+    }
+
+    /**
+     * @return the size of the input file, or -1 when unknown, e.g. for standard input
+     */
+    private static long inputSize(@Nonnull String inputFilePath) {
+        try {
+            final Path path = Paths.get(inputFilePath);
+            return !STANDARD_STREAM.equals(inputFilePath) && Files.isRegularFile(path) ? Files.size(path) : -1;
+        } catch (IOException | InvalidPathException e) {
+            return -1;
+        }
+    }
+
     /**
      * Sorts names from the input file and writes them to the output file.
-     * Performance metrics are logged for reading, writing, and the entire process.
+     * Performance metrics are logged for reading, writing, and the entire process,
+     * and progress every {@code app.progress.interval-millis} while it runs, see {@link ProgressReporter}.
      * @param inputFilePath the path to the input file
      * @param outputFilePath the path to the output file
      */
@@ -59,20 +528,44 @@ public abstract class FileContentSortingEvaluationService {
 
         Instant start = Instant.now();
 
-        logger.info("Reading names from file: {}", inputFilePath);
-        Instant readStart = Instant.now();
-        Collection<Name> nameList = readNamesFromFile(inputFilePath);
-        Instant readEnd = Instant.now();
+        final Collection<Name> nameList;
+        final List<String> sortedNameList;
+        final Instant readStart;
+        final Instant readEnd;
+        final Instant writeStart;
+        final Instant writeEnd;
+
+        try (
+            final ProgressReporter progress = progressIntervalMillis > 0
+                ? ProgressReporter.start(inputFilePath, inputSize(inputFilePath), progressIntervalMillis, logger, progressListener)
+                : null
+        ) {
+            logger.info("Reading names from file: {}", inputFilePath);
+            readStart = Instant.now();
+            nameList = readNamesFromFile(inputFilePath);
+            readEnd = Instant.now();
 
-        logger.info("Write sorted names to file: {}", outputFilePath);
-        Instant writeStart = Instant.now();
-        List<String> sortedNameList = writeSortedNamesToFile(nameList, outputFilePath);
-        Instant writeEnd = Instant.now();
+            if (progress != null) {
+                // sorting at insertion is done by now, sorting on demand happens before writing
+                progress.setPhase(ProgressReporter.Phase.SORTING);
+            }
+
+            logger.info("Write sorted names to file: {}", outputFilePath);
+            writeStart = Instant.now();
+            sortedNameList = writeSortedNamesToFile(nameList, outputFilePath);
+            writeEnd = Instant.now();
+
+            if (progress != null) {
+                progress.setPhase(ProgressReporter.Phase.DONE);
+            }
+        }
 
         Instant end = Instant.now();
 
-        // Print to console without affecting performance metrics
-        sortedNameList.forEach(System.out::println);
+        // Print to console without affecting performance metrics; not when standard output carries the sorted names
+        if (!STANDARD_STREAM.equals(outputFilePath)) {
+            sortedNameList.forEach(System.out::println);
+        }
 
         // Log performance metrics at the end for better readability
         // Assume immaterial logging overhead for simplicity
@@ -0,0 +1,141 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A cheap statistical profile of an input file, built from a few sampled blocks instead of a full scan.
+ * Used to pick a sorting engine before committing to reading the whole file.
+ * @param fileSizeBytes size of the file on disk
+ * @param sampledLines number of lines read while sampling (including empty and invalid lines)
+ * @param estimatedRecords estimated number of valid names in the whole file
+ * @param duplicateRatio share of sampled names that repeat an earlier sampled name (case-insensitive), 0..1
+ * @param presortedness share of adjacent sampled name pairs already in ascending order, 0..1
+ * @param ascii true if every sampled character is 7-bit ASCII
+ */
+public record InputProfile(
+    long fileSizeBytes,
+    int sampledLines,
+    long estimatedRecords,
+    double duplicateRatio,
+    double presortedness,
+    boolean ascii) {
+
+    private static final int SAMPLE_BLOCKS = 4;
+
+    private static final int LINES_PER_BLOCK = 256;
+
+    /**
+     * Samples {@value #SAMPLE_BLOCKS} evenly spread blocks of the file.
+     * Small files are read entirely, so the estimates become exact.
+     * @param path the input file
+     * @return the profile of the file
+     */
+    public static InputProfile of(@Nonnull Path path) {
+
+        try (SeekableByteChannel channel = Files.newByteChannel(path)) {
+
+            final long fileSize = channel.size();
+            final Set<String> distinctNames = new HashSet<>();
+
+            int sampledLines = 0;
+            long sampledBytes = 0;
+            int validNames = 0;
+            int orderedPairs = 0;
+            int comparedPairs = 0;
+            boolean ascii = true;
+            boolean reachedEndOfFile = false;
+            long sampledUpTo = 0;
+
+            for (int block = 0; block < SAMPLE_BLOCKS && !reachedEndOfFile; block++) {
+
+                // never re-read lines of the previous block on medium-sized files
+                final long offset = Math.max(fileSize * block / SAMPLE_BLOCKS, sampledUpTo);
+                if (offset >= fileSize) {
+                    break;
+                }
+                channel.position(offset);
+
+                // a fresh reader per block, as the channel position moves underneath it;
+                // the block may start inside a multi-byte character, which is replaced rather than reported
+                final BufferedReader reader = new BufferedReader(Channels.newReader(channel,
+                    StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE), -1));
+                long blockBytes = 0;
+                if (offset > 0) {
+                    // skip the partial line we landed in
+                    final String partialLine = reader.readLine();
+                    blockBytes += partialLine == null ? 0 : partialLine.getBytes(StandardCharsets.UTF_8).length + 1;
+                }
+
+                Name previous = null;
+                for (int i = 0; i < LINES_PER_BLOCK; i++) {
+                    final String line = reader.readLine();
+                    if (line == null) {
+                        reachedEndOfFile = block == 0; // the first block covered the whole file
+                        break;
+                    }
+
+                    final int lineBytes = line.getBytes(StandardCharsets.UTF_8).length + 1;
+                    sampledLines++;
+                    sampledBytes += lineBytes;
+                    blockBytes += lineBytes;
+                    ascii = ascii && isAscii(line);
+
+                    final Name name = Name.parse(line);
+                    if (name == null) {
+                        continue;
+                    }
+
+                    validNames++;
+                    distinctNames.add(name.toString().toLowerCase(Locale.ROOT));
+                    if (previous != null) {
+                        comparedPairs++;
+                        if (previous.compareTo(name) <= 0) {
+                            orderedPairs++;
+                        }
+                    }
+                    previous = name;
+                }
+                sampledUpTo = offset + blockBytes;
+            }
+
+            final long estimatedRecords;
+            if (reachedEndOfFile || sampledBytes == 0) {
+                estimatedRecords = validNames;
+            } else {
+                estimatedRecords = Math.round((double) fileSize / sampledBytes * validNames);
+            }
+
+            return new InputProfile(
+                fileSize,
+                sampledLines,
+                estimatedRecords,
+                validNames == 0 ? 0.0 : 1.0 - (double) distinctNames.size() / validNames,
+                comparedPairs == 0 ? 1.0 : (double) orderedPairs / comparedPairs,
+                ascii);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to sample input file: " + path, e);
+        }
+    }
+
+    private static boolean isAscii(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.dd.nameSorter.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads a UTF-8 file line by line like a buffered reader, but also reports the byte offset and byte length
+ * of every line, such that the line can be read again later with a positional read.
+ * Lines end at '\n', and a '\r' before it is not part of the line (nor of its length).
+ * Not thread-safe.
+ */
+final class OffsetLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream input;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int bufferPosition;
+
+    private int bufferLimit;
+
+    private byte[] line = new byte[256];
+
+    private int lineLength;
+
+    private long lineOffset;
+
+    private long position; // Byte offset of the next unread byte in the file
+
+    OffsetLineReader(Path path) throws IOException {
+        this(path, 0);
+    }
+
+    /**
+     * Starts reading at the given byte offset, which must be the start of a line, e.g. a previous {@link #offset()}.
+     */
+    OffsetLineReader(Path path, long startOffset) throws IOException {
+        this.input = Files.newInputStream(path);
+        try {
+            input.skipNBytes(startOffset);
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+        this.position = startOffset;
+    }
+
+    /**
+     * Advances to the next line.
+     * @return false at the end of the file
+     */
+    boolean next() throws IOException {
+
+        lineOffset = position;
+        lineLength = 0;
+
+        boolean anyByte = false;
+        while (true) {
+            if (bufferPosition == bufferLimit) {
+                bufferLimit = input.read(buffer);
+                bufferPosition = 0;
+                if (bufferLimit <= 0) {
+                    bufferLimit = 0;
+                    break;
+                }
+            }
+
+            // Scan the buffer for the end of the line and copy the line in one go
+            int end = bufferPosition;
+            while (end < bufferLimit && buffer[end] != '\n') {
+                end++;
+            }
+            append(bufferPosition, end - bufferPosition);
+            position += end - bufferPosition;
+            anyByte = true;
+
+            if (end < bufferLimit) {
+                bufferPosition = end + 1;
+                position++;
+                break;
+            }
+            bufferPosition = end;
+        }
+
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        return anyByte;
+    }
+
+    private void append(int from, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * @return the current line, decoded
+     */
+    String line() {
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param decoder decodes the line with its own actions on malformed input, e.g. to report rather than replace it
+     * @return the current line, decoded
+     * @throws CharacterCodingException if the decoder reports the line
+     */
+    String line(CharsetDecoder decoder) throws CharacterCodingException {
+        return decoder.decode(ByteBuffer.wrap(line, 0, lineLength)).toString();
+    }
+
+    /**
+     * @return the byte offset of the current line in the file
+     */
+    long offset() {
+        return lineOffset;
+    }
+
+    /**
+     * @return the byte offset right after the current line and its terminator, where the next line starts
+     */
+    long nextOffset() {
+        return position;
+    }
+
+    /**
+     * @return the byte length of the current line, without its line terminator
+     */
+    int length() {
+        return lineLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.dd.nameSorter.service;
+
+import jakarta.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+
+/**
+ * Live progress of one sort, for runs long enough that operators need to see whether they are stuck.
+ * The reading and writing loops count on their own thread with {@link Counts}, and add to striped counters
+ * ({@link LongAdder}) once per batch of lines, so the shared counters cost next to nothing per line and do not contend
+ * when shards are written in parallel. A daemon thread samples the counters every interval and logs
+ * the current phase, the records per second over the last interval, the heap usage and an estimated time to the end
+ * of the phase: from the input bytes left while reading, from the names left while writing.
+ * The reporter of a sort is bound to the thread running it, see {@link #current()}, such that services shared by
+ * concurrent sorts (e.g. in watch mode) report every sort on its own.
+ */
+public final class ProgressReporter implements Closeable {
+
+    public enum Phase { READING, SORTING, WRITING, DONE }
+
+    /**
+     * One sample of the progress.
+     * @param totalBytes size of the input, or -1 when unknown (standard input)
+     * @param recordsPerSecond lines parsed per second while reading, names written per second while writing, over the last interval
+     * @param etaMillis estimated time to the end of the phase, or -1 when unknown
+     */
+    public record Progress(Phase phase, long bytesRead, long totalBytes, long linesParsed, long namesInserted, long namesWritten,
+                           double recordsPerSecond, long heapUsedBytes, long heapMaxBytes, long etaMillis) {}
+
+    private static final ThreadLocal<ProgressReporter> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder linesParsed = new LongAdder();
+
+    private final LongAdder namesInserted = new LongAdder();
+
+    private final LongAdder namesWritten = new LongAdder();
+
+    private volatile Phase phase = Phase.READING;
+
+    private final String source;
+
+    private final long totalBytes;
+
+    private final Logger logger;
+
+    private final Consumer<Progress> listener;
+
+    private final ScheduledExecutorService sampler; // null when not sampling periodically
+
+    // State of the previous sample, to compute rates over the last interval; guarded by this
+    private long lastSampleNanos;
+
+    private long lastBytesRead;
+
+    private long lastLinesParsed;
+
+    private long lastNamesWritten;
+
+    /**
+     * @param source the input being sorted, for log messages
+     * @param totalBytes size of the input, or -1 when unknown
+     * @param intervalMillis time between samples; 0 to only sample on demand
+     * @param logger the logger of the sorting service
+     * @param listener receives every sample, and a last one when the reporter is closed
+     */
+    ProgressReporter(@Nonnull String source, long totalBytes, long intervalMillis, @Nonnull Logger logger, @Nonnull Consumer<Progress> listener) {
+        this.source = source;
+        this.totalBytes = totalBytes;
+        this.logger = logger;
+        this.listener = listener;
+        this.lastSampleNanos = System.nanoTime();
+
+        if (intervalMillis > 0) {
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "progress-" + Thread.currentThread().getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(this::report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            sampler = null;
+        }
+    }
+
+    /**
+     * Creates a reporter and binds it to the current thread until it is closed.
+     */
+    static ProgressReporter start(@Nonnull String source, long totalBytes, long intervalMillis,
+                                  @Nonnull Logger logger, @Nonnull Consumer<Progress> listener) {
+        final ProgressReporter reporter = new ProgressReporter(source, totalBytes, intervalMillis, logger, listener);
+        CURRENT.set(reporter);
+        return reporter;
+    }
+
+    /**
+     * @return the reporter of the sort running on the current thread, or null when progress is not reported
+     */
+    static ProgressReporter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps an input stream such that the bytes read through it are counted, once per buffer fill.
+     */
+    InputStream countBytes(@Nonnull InputStream input) {
+        return new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                final int b = super.read();
+                if (b >= 0) {
+                    bytesRead.increment();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(@Nonnull byte[] buffer, int offset, int length) throws IOException {
+                final int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    bytesRead.add(read);
+                }
+                return read;
+            }
+        };
+    }
+
+    /**
+     * @param reporter the reporter to add to, or null when progress is not reported
+     * @return counts for one reading or writing loop on the current thread, to be flushed when the loop ends
+     */
+    static Counts counts(ProgressReporter reporter) {
+        return new Counts(reporter);
+    }
+
+    /**
+     * Counts of one loop, kept in plain fields and added to the reporter once per {@value #BATCH_SIZE} lines or names
+     * and on {@link #flush()}. Not thread-safe: every thread counts with its own instance.
+     */
+    static final class Counts {
+
+        static final int BATCH_SIZE = 1024; // a sample lags behind by at most this many lines per thread
+
+        private final ProgressReporter reporter;
+
+        private long bytesRead;
+
+        private int linesParsed;
+
+        private int namesInserted;
+
+        private int namesWritten;
+
+        private Counts(ProgressReporter reporter) {
+            this.reporter = reporter;
+        }
+
+        void lineParsed() {
+            if (++linesParsed == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * Counts a line read without {@link ProgressReporter#countBytes(InputStream)}.
+         */
+        void lineParsed(long bytes) {
+            bytesRead += bytes;
+            lineParsed();
+        }
+
+        void nameInserted() {
+            namesInserted++; // at most one per line, so flushed with the lines
+        }
+
+        void nameWritten() {
+            if (++namesWritten == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (reporter != null) {
+                reporter.bytesRead.add(bytesRead);
+                reporter.linesParsed.add(linesParsed);
+                reporter.namesInserted.add(namesInserted);
+                reporter.namesWritten.add(namesWritten);
+            }
+            bytesRead = 0;
+            linesParsed = 0;
+            namesInserted = 0;
+            namesWritten = 0;
+        }
+    }
+
+    void setPhase(@Nonnull Phase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Samples the counters.
+     * @return the progress since the start, with rates since the previous sample
+     */
+    public synchronized Progress sample() {
+
+        final long now = System.nanoTime();
+        final double seconds = Math.max(now - lastSampleNanos, 1) / 1e9;
+        final Phase currentPhase = phase;
+        final long bytes = bytesRead.sum();
+        final long lines = linesParsed.sum();
+        final long inserted = namesInserted.sum();
+        final long written = namesWritten.sum();
+
+        double recordsPerSecond = 0;
+        long etaMillis = -1;
+        if (currentPhase == Phase.READING) {
+            recordsPerSecond = (lines - lastLinesParsed) / seconds;
+            final double bytesPerSecond = (bytes - lastBytesRead) / seconds;
+            if (totalBytes >= 0 && bytesPerSecond > 0) {
+                etaMillis = (long) (Math.max(totalBytes - bytes, 0) / bytesPerSecond * 1000);
+            }
+        } else if (currentPhase == Phase.WRITING) {
+            recordsPerSecond = (written - lastNamesWritten) / seconds;
+            if (recordsPerSecond > 0) {
+                etaMillis = (long) (Math.max(inserted - written, 0) / recordsPerSecond * 1000);
+            }
+        } else if (currentPhase == Phase.DONE) {
+            etaMillis = 0;
+        }
+
+        lastSampleNanos = now;
+        lastBytesRead = bytes;
+        lastLinesParsed = lines;
+        lastNamesWritten = written;
+
+        final Runtime runtime = Runtime.getRuntime();
+        return new Progress(currentPhase, bytes, totalBytes, lines, inserted, written, recordsPerSecond,
+            runtime.totalMemory() - runtime.freeMemory(), runtime.maxMemory(), etaMillis);
+    }
+
+    private void report() {
+        try {
+            final Progress progress = sample();
+            if (logger.isInfoEnabled()) {
+                logger.info("PROGRESS: {} {} - read {}, lines parsed: {}, names inserted: {}, names written: {}, "
+                        + "{} records/s, heap used: {} MB of {} MB, phase ETA: {}",
+                    progress.phase(), source,
+                    progress.totalBytes() > 0
+                        ? (progress.bytesRead() * 100 / progress.totalBytes()) + "% of " + progress.totalBytes() / (1024 * 1024) + " MB"
+                        : progress.bytesRead() / (1024 * 1024) + " MB",
+                    progress.linesParsed(), progress.namesInserted(), progress.namesWritten(),
+                    String.format("%,.0f", progress.recordsPerSecond()),
+                    progress.heapUsedBytes() / (1024 * 1024), progress.heapMaxBytes() / (1024 * 1024),
+                    progress.etaMillis() < 0 ? "unknown" : formatDuration(progress.etaMillis()));
+            }
+            listener.accept(progress);
+
+        } catch (RuntimeException e) {
+            // an exception would cancel the periodic sampling
+            logger.warn("Failed to report progress of {}: {}", source, e.getMessage());
+        }
+    }
+
+    private static String formatDuration(long millis) {
+        final Duration duration = Duration.ofMillis(millis);
+        return String.format("%d:%02d:%02d", duration.toHours(), duration.toMinutesPart(), duration.toSecondsPart());
+    }
+
+    /**
+     * Stops the sampling, passes a last sample to the listener and unbinds the reporter from the current thread.
+     */
+    @Override
+    public void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+        }
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        listener.accept(sample());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sample sort: splitters are picked from a random sample of the names, every name is scattered into
+ * the range bucket it falls in, and the buckets are sorted independently on separate cores.
+ * Since the buckets are disjoint ranges, concatenating them gives the sorted result without a merge phase.
+ * Names are ranked by (name, line position), so a heavily repeated surname, or even a repeated full name,
+ * is spread over several buckets instead of serializing the job on one of them,
+ * and names that compare equal keep their input order.
+ */
+@Service
+@ConditionalOnProperty(name = "app.service.type", havingValue = "rangePartitioned", matchIfMissing = false)
+public class RangePartitionedNameSortingService extends FileContentSortingEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangePartitionedNameSortingService.class);
+
+    // oversampling keeps the expected bucket size within a few percent of n / partitions
+    private static final int SAMPLES_PER_PARTITION = 64;
+
+    // below this many names per partition, the scatter costs more than it saves
+    private static final int MIN_NAMES_PER_PARTITION = 1024;
+
+    @Value("${app.service.partitions:0}")
+    private int partitions; // 0: one partition per available processor
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    @Override
+    protected Collection<Name> readNamesFromFile(@Nonnull String inputFilePath) {
+
+        final List<Name> nameList = new ArrayList<>();
+
+        forEachNameInFile(inputFilePath, nameList::add);
+
+        return sortInRangePartitions(nameList);
+    }
+
+    @Override
+    protected @Nonnull List<String> writeSortedNamesToFile(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath) {
+
+        // No sorting is needed here because the partitions are already sorted and concatenated.
+
+        return writeNamesInOrder(nameList, outputFilePath);
+    }
+
+    /**
+     * Sorts the names by scattering them into sampled range partitions, sorted in parallel.
+     * @param nameList the names in input order
+     * @return the names in sorted order
+     */
+    List<Name> sortInRangePartitions(@Nonnull List<Name> nameList) {
+
+        final Name[] names = nameList.toArray(new Name[0]);
+        final int partitionCount = Math.min(
+            partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors(),
+            Math.max(1, names.length / MIN_NAMES_PER_PARTITION));
+
+        if (partitionCount == 1) {
+            Arrays.sort(names);
+            return Arrays.asList(names);
+        }
+
+        // 1. Pick partitionCount - 1 splitters from a sorted random sample of line positions
+        final Random random = new Random(names.length);
+        final Integer[] sample = random.ints(Math.min(names.length, partitionCount * SAMPLES_PER_PARTITION), 0, names.length)
+            .boxed()
+            .toArray(Integer[]::new);
+        Arrays.sort(sample, (a, b) -> compare(names, a, b));
+
+        final int[] splitters = new int[partitionCount - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * sample.length / partitionCount];
+        }
+
+        // 2. Locate the partition of every name in parallel, then scatter in input order to keep the sort stable
+        final int[] partitionOf = new int[names.length];
+        IntStream.range(0, names.length).parallel().forEach(i -> partitionOf[i] = partitionOf(names, splitters, i));
+
+        final int[] partitionStart = new int[partitionCount + 1];
+        for (int partition : partitionOf) {
+            partitionStart[partition + 1]++;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            partitionStart[p + 1] += partitionStart[p];
+        }
+
+        final Name[] scattered = new Name[names.length];
+        final int[] nextSlot = Arrays.copyOf(partitionStart, partitionCount);
+        for (int i = 0; i < names.length; i++) {
+            scattered[nextSlot[partitionOf[i]]++] = names[i];
+        }
+
+        // 3. Sort every partition on its own core; the partitions are adjacent ranges, so no merge is needed
+        IntStream.range(0, partitionCount).parallel()
+            .forEach(p -> Arrays.sort(scattered, partitionStart[p], partitionStart[p + 1]));
+
+        if (logger.isDebugEnabled()) {
+            final int largest = IntStream.range(0, partitionCount)
+                .map(p -> partitionStart[p + 1] - partitionStart[p])
+                .max()
+                .orElse(0);
+            logger.debug("Sorted {} names in {} partitions, largest partition: {}", names.length, partitionCount, largest);
+        }
+
+        return Arrays.asList(scattered);
+    }
+
+    /**
+     * Binary search for the number of splitters ranked at or below the name at the given position.
+     */
+    private static int partitionOf(Name[] names, int[] splitters, int position) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compare(names, splitters[middle], position) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Orders line positions by name, then by position, such that no two positions are ranked equal.
+     */
+    private static int compare(Name[] names, int position, int otherPosition) {
+        final int comparison = names[position].compareTo(names[otherPosition]);
+        return comparison != 0 ? comparison : Integer.compare(position, otherPosition);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+
+/**
+ * Collects the lines rejected while reading one input file.
+ * Every rejected line goes to a sidecar file through a buffered writer, as: line number, reason, original line (tab separated).
+ * The log only gets a rate-limited sample of the rejections, at most a few per reason every few seconds, and a per-reason
+ * summary when the sink is closed, such that dirty input with millions of bad lines does not spend its time in synchronous logging.
+ * The sidecar file is only created once a line is rejected, and a sidecar left by a previous run of the same input
+ * is deleted when no line is rejected. Not thread-safe: one sink per reading thread.
+ */
+public class RejectedRecordSink implements Closeable {
+
+    public static final String SIDECAR_SUFFIX = ".rejected.tsv";
+
+    // rejections logged individually per reason and interval, before only counting them until the next interval
+    private static final int LOGGED_SAMPLES_PER_INTERVAL = 10;
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final String source;
+
+    private final Path sidecarPath;
+
+    private final Logger logger;
+
+    private final Map<Name.Validation, Long> rejectedCounts = new EnumMap<>(Name.Validation.class);
+
+    private final Map<Name.Validation, LogSample> logSamples = new EnumMap<>(Name.Validation.class);
+
+    private BufferedWriter sidecarWriter;
+
+    /**
+     * @param source the input being read, for log messages
+     * @param sidecarPath the file to write rejected lines to, or null to only count and log them
+     * @param logger the logger of the reading service
+     */
+    public RejectedRecordSink(String source, Path sidecarPath, Logger logger) {
+        this.source = source;
+        this.sidecarPath = sidecarPath;
+        this.logger = logger;
+    }
+
+    /**
+     * Names the sidecar file of an input after the input file name and a hash of its directory,
+     * such that inputs with the same file name in different directories do not overwrite each other's rejected lines.
+     * @param rejectedRecordsDir the directory of the sidecar files ({@code app.rejected.dir}), blank for none
+     * @param inputPath the input file
+     * @return {@code <rejectedRecordsDir>/<input file name>-<directory hash>.rejected.tsv}, or null if the directory is blank
+     */
+    public static Path sidecarPath(String rejectedRecordsDir, Path inputPath) {
+        if (rejectedRecordsDir == null || rejectedRecordsDir.isBlank()) {
+            return null;
+        }
+        final Path inputDir = inputPath.toAbsolutePath().normalize().getParent();
+        return Paths.get(rejectedRecordsDir).resolve(String.format("%s-%08x%s",
+            inputPath.getFileName(), inputDir == null ? 0 : inputDir.toString().hashCode(), SIDECAR_SUFFIX));
+    }
+
+    /**
+     * Records a rejected line.
+     * @param lineNumber one-based line number in the input
+     * @param reason why the line was rejected
+     * @param line the original line
+     */
+    public void reject(long lineNumber, Name.Validation reason, String line) throws IOException {
+
+        rejectedCounts.merge(reason, 1L, Long::sum);
+
+        if (logger.isWarnEnabled()) {
+            logSamples.computeIfAbsent(reason, LogSample::new).offer(lineNumber);
+        }
+
+        if (sidecarPath != null) {
+            if (sidecarWriter == null) {
+                if (sidecarPath.getParent() != null) {
+                    Files.createDirectories(sidecarPath.getParent());
+                }
+                sidecarWriter = Files.newBufferedWriter(sidecarPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            sidecarWriter.write(Long.toString(lineNumber));
+            sidecarWriter.write('\t');
+            sidecarWriter.write(reason.name());
+            sidecarWriter.write('\t');
+            sidecarWriter.write(line);
+            sidecarWriter.newLine();
+        }
+    }
+
+    /**
+     * Logs up to {@link #LOGGED_SAMPLES_PER_INTERVAL} rejections of one reason per interval, which starts at the first
+     * rejection logged in it; the clock is only read when an interval starts and once its samples are used up.
+     */
+    private final class LogSample {
+
+        private final Name.Validation reason;
+
+        private long intervalStart;
+
+        private int logged;
+
+        private long notLogged;
+
+        private LogSample(Name.Validation reason) {
+            this.reason = reason;
+        }
+
+        void offer(long lineNumber) {
+            if (logged == LOGGED_SAMPLES_PER_INTERVAL) {
+                final long now = System.nanoTime();
+                if (now - intervalStart < SAMPLE_INTERVAL_NANOS) {
+                    notLogged++;
+                    return;
+                }
+                logged = 0;
+            }
+            if (logged == 0) {
+                intervalStart = System.nanoTime();
+            }
+            logged++;
+
+            logger.warn("Skipping line: {}. {}{}{}", lineNumber, reason.getMessage(),
+                notLogged > 0 ? " (" + notLogged + " more " + reason + " lines were only counted)" : "",
+                logged == LOGGED_SAMPLES_PER_INTERVAL ? " (further " + reason + " lines are only counted for the rest of the "
+                    + TimeUnit.NANOSECONDS.toSeconds(SAMPLE_INTERVAL_NANOS) + " s interval)" : "");
+            notLogged = 0;
+        }
+    }
+
+    /**
+     * @return the number of rejected lines per reason
+     */
+    public Map<Name.Validation, Long> getRejectedCounts() {
+        return rejectedCounts;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Flushes the sidecar file and logs the per-reason summary.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (sidecarWriter != null) {
+            sidecarWriter.close();
+        } else if (sidecarPath != null) {
+            Files.deleteIfExists(sidecarPath); // left by a previous run with rejected lines
+        }
+
+        if (!rejectedCounts.isEmpty() && logger.isWarnEnabled()) {
+            logger.warn("Rejected {} lines of {}: {}{}",
+                getRejectedCount(),
+                source,
+                rejectedCounts.entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(Collectors.joining(", ")),
+                sidecarWriter != null ? "; rejected lines written to " + sidecarPath : "");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Splits a sorted sequence of names into shard files written concurrently, one thread per shard,
+ * for downstream loaders that ingest in parallel.
+ * Shards are cut either by record count (equal sizes), or on surname boundaries, such that all names with
+ * the same surname (compared case-insensitively, as sorted) end up in the same shard; shards then differ in size,
+ * and a surname covering more than a whole shard leaves fewer, larger shards.
+ * Shard files are named after the output file, e.g. {@code sorted-00.txt, sorted-01.txt}, and listed in order
+ * in a manifest {@code sorted.manifest.tsv} with the record count and the first and last name of every shard.
+ */
+final class ShardedOutputWriter {
+
+    static final String SPLIT_BY_COUNT = "count";
+
+    static final String SPLIT_BY_SURNAME = "surname";
+
+    static final String MANIFEST_SUFFIX = ".manifest.tsv";
+
+    private final int shards;
+
+    private final boolean splitBySurname;
+
+    ShardedOutputWriter(int shards, @Nonnull String splitBy) {
+        this.shards = shards;
+        this.splitBySurname = SPLIT_BY_SURNAME.equals(splitBy);
+    }
+
+    /**
+     * Writes the shards and the manifest.
+     * @param nameList the names, already sorted
+     * @param outputFilePath the output file the shard and manifest names are derived from; not written itself
+     * @param shardWriter writes the names of one shard to the given file, in order, and returns them as written
+     * @return the names written, in order across all shards
+     */
+    List<String> write(@Nonnull Collection<Name> nameList, @Nonnull String outputFilePath,
+                       @Nonnull BiFunction<List<Name>, String, List<String>> shardWriter) {
+
+        final List<Name> names = nameList instanceof List<Name> list && nameList instanceof RandomAccess
+            ? list
+            : new ArrayList<>(nameList);
+
+        final List<List<Name>> shardNames = split(names);
+        final Path outputPath = Paths.get(outputFilePath);
+        final List<String> shardFiles = new ArrayList<>(shardNames.size());
+        for (int i = 0; i < shardNames.size(); i++) {
+            shardFiles.add(shardPath(outputPath, i, shardNames.size()).toString());
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(shardNames.size(), 1));
+        try {
+            final List<Future<List<String>>> written = new ArrayList<>(shardNames.size());
+            for (int i = 0; i < shardNames.size(); i++) {
+                final List<Name> shard = shardNames.get(i);
+                final String shardFile = shardFiles.get(i);
+                written.add(executor.submit(() -> shardWriter.apply(shard, shardFile)));
+            }
+
+            final List<String> lines = new ArrayList<>(names.size());
+            for (Future<List<String>> shard : written) {
+                lines.addAll(shard.get());
+            }
+
+            writeManifest(manifestPath(outputPath), shardNames, shardFiles);
+            return lines;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted writing shards of: " + outputFilePath, e);
+
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                ? runtimeException
+                : new RuntimeException("Failed to write shards of: " + outputFilePath, e.getCause());
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cuts the sorted names into consecutive, non-empty shards.
+     */
+    List<List<Name>> split(@Nonnull List<Name> names) {
+
+        final List<List<Name>> result = new ArrayList<>(shards);
+        int from = 0;
+        for (int i = 1; i <= shards && from < names.size(); i++) {
+            int to = i == shards ? names.size() : Math.max((int) ((long) names.size() * i / shards), from);
+            if (splitBySurname) {
+                // move the cut past the surname it would split
+                while (to > 0 && to < names.size()
+                    && names.get(to - 1).getLastName().equalsIgnoreCase(names.get(to).getLastName())) {
+                    to++;
+                }
+            }
+            if (to > from) {
+                result.add(names.subList(from, to));
+                from = to;
+            }
+        }
+        return result;
+    }
+
+    static Path shardPath(@Nonnull Path outputPath, int shard, int shardCount) {
+        final String fileName = outputPath.getFileName().toString();
+        final int extension = fileName.lastIndexOf('.');
+        final String digits = "%0" + Math.max(2, String.valueOf(shardCount - 1).length()) + "d";
+        final String shardName = extension > 0
+            ? fileName.substring(0, extension) + "-" + String.format(digits, shard) + fileName.substring(extension)
+            : fileName + "-" + String.format(digits, shard);
+        return outputPath.resolveSibling(shardName);
+    }
+
+    static Path manifestPath(@Nonnull Path outputPath) {
+        final String fileName = outputPath.getFileName().toString();
+        final int extension = fileName.lastIndexOf('.');
+        return outputPath.resolveSibling((extension > 0 ? fileName.substring(0, extension) : fileName) + MANIFEST_SUFFIX);
+    }
+
+    private static void writeManifest(Path manifestPath, List<List<Name>> shardNames, List<String> shardFiles) {
+
+        try (
+            final BufferedWriter writer = Files.newBufferedWriter(
+                manifestPath,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            writer.write("shard\trecords\tfirst\tlast");
+            writer.newLine();
+            for (int i = 0; i < shardNames.size(); i++) {
+                final List<Name> shard = shardNames.get(i);
+                writer.write(Paths.get(shardFiles.get(i)).getFileName() + "\t" + shard.size()
+                    + "\t" + shard.get(0) + "\t" + shard.get(shard.size() - 1));
+                writer.newLine();
+            }
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write shard manifest: " + manifestPath, e);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.dd.nameSorter.service;
+
+import com.example.dd.nameSorter.model.LoserTree;
+import com.example.dd.nameSorter.model.Name;
+import jakarta.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Merges files that are each already sorted by name into one sorted output file, without sorting again.
+ * Uses a {@link LoserTree} over buffered readers, so memory is O(number of files) and time is O(n log(files)).
+ * When there are more files than {@code app.merge.max-open-files}, groups of files are first merged into
+ * temporary files, such that the number of open file handles stays bounded.
+ */
+@Service
+public class SortedFileMergeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortedFileMergeService.class);
+
+    @Value("${app.merge.max-open-files:64}")
+    private int maxOpenFiles = 64;
+
+    @Value("${app.merge.verify-sorted:true}")
+    private boolean verifySorted = true;
+
+    @Value("${app.merge.buffer-size:65536}")
+    private int bufferSize = 65536;
+
+    @Value("${app.rejected.dir:logs}")
+    private String rejectedRecordsDir = "logs";
+
+    public void setMaxOpenFiles(int maxOpenFiles) {
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    public void setVerifySorted(boolean verifySorted) {
+        this.verifySorted = verifySorted;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public void setRejectedRecordsDir(String rejectedRecordsDir) {
+        this.rejectedRecordsDir = rejectedRecordsDir;
+    }
+
+    /**
+     * Merges the sorted input files into the output file, in {@link Name#compareTo} order.
+     * Names comparing equal keep the order of the input files they come from.
+     * @param inputFilePaths the sorted input files
+     * @param outputFilePath the path to the output file
+     * @return the number of names written
+     * @throws IllegalArgumentException if sorted input is verified and a file is not sorted
+     */
+    public long mergeSortedFiles(@Nonnull List<String> inputFilePaths, @Nonnull String outputFilePath) {
+
+        if (maxOpenFiles < 2) {
+            throw new IllegalArgumentException("app.merge.max-open-files must be at least 2, but was " + maxOpenFiles);
+        }
+
+        final Instant start = Instant.now();
+        final List<Path> inputPaths = inputFilePaths.stream().map(Paths::get).toList();
+        final List<Path> temporaryFiles = new ArrayList<>();
+
+        try {
+            // Merge passes: reduce the number of files until one merge can open all of them at once
+            List<Path> pending = inputPaths;
+            while (pending.size() > maxOpenFiles) {
+                final List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < pending.size(); i += maxOpenFiles) {
+                    final List<Path> group = pending.subList(i, Math.min(i + maxOpenFiles, pending.size()));
+                    final Path temporaryFile = Files.createTempFile("name-sorter-merge-", ".txt");
+                    temporaryFiles.add(temporaryFile);
+                    merge(group, temporaryFile);
+                    merged.add(temporaryFile);
+                }
+                logger.debug("Merged {} files into {} intermediate files", pending.size(), merged.size());
+                pending = merged;
+            }
+
+            final long count = merge(pending, Paths.get(outputFilePath));
+
+            logger.info("PERFORMANCE: Merged {} names from {} files in {} ms",
+                count, inputPaths.size(), Duration.between(start, Instant.now()).toMillis());
+            return count;
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to merge sorted files into: " + outputFilePath, e);
+
+        } finally {
+            for (Path temporaryFile : temporaryFiles) {
+                try {
+                    Files.deleteIfExists(temporaryFile);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete temporary file: {}", temporaryFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges at most {@code maxOpenFiles} sorted files into the output file in a single pass.
+     */
+    private long merge(List<Path> inputPaths, Path outputPath) throws IOException {
+
+        final List<SortedNameFileReader> readers = new ArrayList<>(inputPaths.size());
+        try (
+            final BufferedWriter writer = Files.newBufferedWriter(
+                outputPath,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)
+        ) {
+            for (Path inputPath : inputPaths) {
+                readers.add(new SortedNameFileReader(inputPath));
+            }
+
+            final LoserTree<Name> loserTree = new LoserTree<>(readers);
+            long count = 0;
+            while (loserTree.hasNext()) {
+                writer.write(loserTree.next().toString());
+                writer.newLine();
+                count++;
+            }
+            return count;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+
+        } finally {
+            for (SortedNameFileReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the valid names of one file in order, optionally checking that they are sorted.
+     */
+    private final class SortedNameFileReader implements Iterator<Name>, Closeable {
+
+        private final Path path;
+
+        private final BufferedReader reader;
+
+        private final RejectedRecordSink rejectedRecords;
+
+        private Name next;
+
+        private Name previous;
+
+        private long lineCount;
+
+        private SortedNameFileReader(Path path) throws IOException {
+            this.path = path;
+            this.reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), bufferSize);
+            this.rejectedRecords = new RejectedRecordSink(path.toString(), RejectedRecordSink.sidecarPath(rejectedRecordsDir, path), logger);
+            try {
+                advance();
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void advance() {
+            try {
+                next = null;
+                String line;
+                while (next == null && (line = reader.readLine()) != null) {
+                    lineCount++;
+                    next = Name.parse(line);
+                    if (next == null) {
+                        final Name.Validation validation = Name.validate(line);
+                        if (validation != Name.Validation.EMPTY) {
+                            rejectedRecords.reject(lineCount, validation, line);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read from file: " + path, e);
+            }
+
+            if (verifySorted && next != null && previous != null && next.compareTo(previous) < 0) {
+                throw new IllegalArgumentException("Input file is not sorted by name: " + path
+                    + ", line " + lineCount + " (" + next + ") comes before (" + previous + ")");
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Name next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            previous = next;
+            advance();
+            return previous;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (rejectedRecords) {
+                reader.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.example.dd.nameSorter.service;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Watches a spool directory and sorts every file dropped into it, in a single long-running JVM.
+ * A file is picked up once it is complete: when its marker file ({@code <file><marker-suffix>}) appears,
+ * or, without a marker suffix, once its size and modification time have not changed for {@code stable-millis}.
+ * Files are sorted on a bounded pool of workers with a bounded queue; when both are full, the watcher blocks
+ * until a worker is free (backpressure), and catches up with the directory content afterwards.
+ * Sorted files are written to the output directory under the same name, and the input file is moved to
+ * the {@code processed} (or {@code failed}) subdirectory of the spool directory.
+ * Latency from arrival to sorted output is logged per file and summarised by {@link #getStatistics()}.
+ */
+@Service
+public class SpoolDirectoryWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolDirectoryWatchService.class);
+
+    private static final String PROCESSED_DIR = "processed";
+
+    private static final String FAILED_DIR = "failed";
+
+    @Autowired
+    private FileContentSortingEvaluationService fileContentSortingEvaluationService;
+
+    @Value("${app.watch.input-dir:files/spool}")
+    private String inputDir = "files/spool";
+
+    @Value("${app.watch.output-dir:files/sorted}")
+    private String outputDir = "files/sorted";
+
+    @Value("${app.watch.workers:2}")
+    private int workers = 2;
+
+    @Value("${app.watch.queue-capacity:16}")
+    private int queueCapacity = 16;
+
+    @Value("${app.watch.stable-millis:1000}")
+    private long stableMillis = 1000;
+
+    @Value("${app.watch.marker-suffix:}")
+    private String markerSuffix = "";
+
+    private volatile WatchService watchService;
+
+    private volatile boolean stopped;
+
+    // Files waiting to be complete, by path: size and modification time when last checked
+    private final Map<Path, PendingFile> pendingFiles = new HashMap<>();
+
+    // Files submitted but not yet moved out of the spool directory, so they are not submitted twice
+    private final Set<Path> submittedFiles = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder filesSorted = new LongAdder();
+
+    private final LongAdder filesFailed = new LongAdder();
+
+    private final LongAdder totalLatencyMillis = new LongAdder();
+
+    private final LongAdder totalQueueMillis = new LongAdder();
+
+    private final LongAccumulator maxLatencyMillis = new LongAccumulator(Long::max, 0);
+
+    public void setFileContentSortingEvaluationService(FileContentSortingEvaluationService fileContentSortingEvaluationService) {
+        this.fileContentSortingEvaluationService = fileContentSortingEvaluationService;
+    }
+
+    public void setInputDir(String inputDir) {
+        this.inputDir = inputDir;
+    }
+
+    public void setOutputDir(String outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setStableMillis(long stableMillis) {
+        this.stableMillis = stableMillis;
+    }
+
+    public void setMarkerSuffix(String markerSuffix) {
+        this.markerSuffix = markerSuffix;
+    }
+
+    /**
+     * Latency of the files sorted so far, from arrival in the spool directory to sorted output.
+     * @param filesSorted the number of files sorted
+     * @param filesFailed the number of files that failed to sort, moved to the failed directory
+     * @param meanLatencyMillis mean time from arrival to sorted output
+     * @param maxLatencyMillis maximum time from arrival to sorted output
+     * @param meanQueueMillis mean time a complete file waited for a worker; growing values call for more workers
+     */
+    public record WatchStatistics(long filesSorted, long filesFailed, double meanLatencyMillis,
+                                  long maxLatencyMillis, double meanQueueMillis) {}
+
+    public WatchStatistics getStatistics() {
+        final long sorted = filesSorted.sum();
+        return new WatchStatistics(
+            sorted,
+            filesFailed.sum(),
+            sorted == 0 ? 0 : (double) totalLatencyMillis.sum() / sorted,
+            maxLatencyMillis.get(),
+            sorted == 0 ? 0 : (double) totalQueueMillis.sum() / sorted);
+    }
+
+    /**
+     * Watches the spool directory and sorts the files completed in it until {@link #stop()} is called,
+     * or the calling thread is interrupted. Files already in the directory are picked up as well.
+     * Waits for the files being sorted to finish before returning.
+     */
+    public void watch() {
+
+        if (workers < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("app.watch.workers must be at least 1 and app.watch.queue-capacity not negative, but were "
+                + workers + " and " + queueCapacity);
+        }
+
+        final Path spoolPath = Paths.get(inputDir);
+        final Path outputPath = Paths.get(outputDir);
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(workers + queueCapacity), new SorterThreadFactory());
+        // one permit per worker and queue slot: the watcher blocks on it instead of the pool rejecting work
+        final Semaphore capacity = new Semaphore(workers + queueCapacity);
+
+        try {
+            Files.createDirectories(spoolPath);
+            Files.createDirectories(outputPath);
+            Files.createDirectories(spoolPath.resolve(PROCESSED_DIR));
+            Files.createDirectories(spoolPath.resolve(FAILED_DIR));
+
+            watchService = FileSystems.getDefault().newWatchService();
+            spoolPath.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+            logger.info("Watching {} with {} workers and a queue of {}; sorted files go to {}",
+                spoolPath, workers, queueCapacity, outputPath);
+
+            scan(spoolPath);
+
+            final long pollMillis = Math.max(stableMillis / 2, 10);
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+
+                final WatchKey key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    boolean overflow = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            arrived(spoolPath.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                    if (overflow) {
+                        // events were lost, e.g. while blocked on a full pool: catch up from the directory content
+                        scan(spoolPath);
+                    }
+                }
+
+                for (Path completed : completedFiles()) {
+                    capacity.acquire();
+                    final long queuedAt = System.nanoTime();
+                    final PendingFile pending = pendingFiles.remove(completed);
+                    submittedFiles.add(completed);
+                    executor.execute(() -> {
+                        try {
+                            sort(completed, spoolPath, outputPath, pending.arrivedAt, queuedAt);
+                        } finally {
+                            submittedFiles.remove(completed);
+                            capacity.release();
+                        }
+                    });
+                }
+            }
+
+        } catch (ClosedWatchServiceException e) {
+            logger.info("Stopped watching {}", spoolPath);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Interrupted watching {}", spoolPath);
+
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch directory: " + spoolPath, e);
+
+        } finally {
+            closeWatchService();
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                    logger.warn("Files still being sorted after waiting an hour: {}", submittedFiles);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            logger.info("PERFORMANCE: Watch statistics: {}", getStatistics());
+        }
+    }
+
+    /**
+     * Stops {@link #watch()} from another thread, or on shutdown. Files already submitted are still sorted,
+     * unless the JVM exits first; their input files then stay in the spool directory to be picked up again.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        closeWatchService();
+    }
+
+    private void closeWatchService() {
+        final WatchService current = watchService;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close watch service: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registers every file in the spool directory, for files that arrived before watching or while events were lost.
+     */
+    private void scan(Path spoolPath) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolPath)) {
+            for (Path file : files) {
+                arrived(file);
+            }
+        }
+    }
+
+    private void arrived(@Nonnull Path path) {
+
+        if (isMarker(path)) {
+            final Path file = dataFileOf(path);
+            if (!pendingFiles.containsKey(file) && !submittedFiles.contains(file) && Files.isRegularFile(file)) {
+                pendingFiles.put(file, new PendingFile(System.nanoTime()));
+            }
+            return;
+        }
+
+        if (!pendingFiles.containsKey(path) && !submittedFiles.contains(path) && Files.isRegularFile(path)) {
+            pendingFiles.put(path, new PendingFile(System.nanoTime()));
+        }
+    }
+
+    /**
+     * @return the pending files that are complete, removed from neither the pending files nor the directory yet
+     */
+    private Set<Path> completedFiles() {
+
+        final Set<Path> completed = new HashSet<>();
+        final long now = System.nanoTime();
+
+        for (Iterator<Map.Entry<Path, PendingFile>> it = pendingFiles.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Path, PendingFile> entry = it.next();
+            final Path file = entry.getKey();
+            final PendingFile pending = entry.getValue();
+
+            if (hasMarkerSuffix()) {
+                if (Files.exists(markerOf(file))) {
+                    completed.add(file);
+                }
+                continue;
+            }
+
+            try {
+                final long size = Files.size(file);
+                final long modified = Files.getLastModifiedTime(file).toMillis();
+                if (size != pending.size || modified != pending.modified) {
+                    pending.size = size;
+                    pending.modified = modified;
+                    pending.stableSince = now;
+                } else if (TimeUnit.NANOSECONDS.toMillis(now - pending.stableSince) >= stableMillis) {
+                    completed.add(file);
+                }
+            } catch (IOException e) {
+                // deleted or moved away before it was complete
+                it.remove();
+            }
+        }
+        return completed;
+    }
+
+    private void sort(Path file, Path spoolPath, Path outputPath, long arrivedAt, long queuedAt) {
+
+        final long startedAt = System.nanoTime();
+        final Path output = outputPath.resolve(file.getFileName());
+
+        try {
+            fileContentSortingEvaluationService.sortNamesInFile(file.toString(), output.toString());
+            moveOut(file, spoolPath.resolve(PROCESSED_DIR));
+
+            final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arrivedAt);
+            final long queueMillis = TimeUnit.NANOSECONDS.toMillis(startedAt - queuedAt);
+            filesSorted.increment();
+            totalLatencyMillis.add(latencyMillis);
+            totalQueueMillis.add(queueMillis);
+            maxLatencyMillis.accumulate(latencyMillis);
+
+            logger.info("PERFORMANCE: Sorted {} into {} in {} ms from arrival ({} ms waiting for a worker)",
+                file.getFileName(), output, latencyMillis, queueMillis);
+
+        } catch (RuntimeException | IOException e) {
+            filesFailed.increment();
+            logger.error("Failed to sort {}: {}", file, e.getMessage());
+            try {
+                moveOut(file, spoolPath.resolve(FAILED_DIR));
+            } catch (IOException moveFailure) {
+                logger.error("Failed to move {} out of the spool directory: {}", file, moveFailure.getMessage());
+            }
+        }
+    }
+
+    private void moveOut(Path file, Path directory) throws IOException {
+        if (hasMarkerSuffix()) {
+            Files.deleteIfExists(markerOf(file));
+        }
+        Files.move(file, directory.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private boolean hasMarkerSuffix() {
+        return markerSuffix != null && !markerSuffix.isEmpty();
+    }
+
+    private boolean isMarker(Path path) {
+        return hasMarkerSuffix() && path.getFileName().toString().endsWith(markerSuffix);
+    }
+
+    private Path markerOf(Path file) {
+        return file.resolveSibling(file.getFileName() + markerSuffix);
+    }
+
+    private Path dataFileOf(Path marker) {
+        final String name = marker.getFileName().toString();
+        return marker.resolveSibling(name.substring(0, name.length() - markerSuffix.length()));
+    }
+
+    /**
+     * A file in the spool directory that is not complete yet.
+     */
+    private static final class PendingFile {
+
+        private final long arrivedAt;
+
+        private long size = -1;
+
+        private long modified = -1;
+
+        private long stableSince;
+
+        private PendingFile(long arrivedAt) {
+            this.arrivedAt = arrivedAt;
+            this.stableSince = arrivedAt;
+        }
+    }
+
+    /**
+     * Names the worker threads, such that logs show which file each worker is sorting.
+     */
+    private static final class SorterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@Nonnull Runnable runnable) {
+            return new Thread(runnable, "spool-sorter-" + count.incrementAndGet());
+        }
+    }
+}
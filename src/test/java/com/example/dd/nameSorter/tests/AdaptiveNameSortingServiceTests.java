@@ -0,0 +1,138 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.AdaptiveNameSortingService;
+import com.example.dd.nameSorter.service.InputProfile;
+import com.example.dd.nameSorter.service.ProgressReporter.Phase;
+import com.example.dd.nameSorter.service.ProgressReporter.Progress;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("PMD.AvoidDuplicateLiterals") // Test Cases should be evaluated separately
+public class AdaptiveNameSortingServiceTests {
+
+    private static final Path OUTPUT_DIR = Path.of("files");
+
+    private static final Path SMALL_INPUT = Path.of("src/test/resources/files/input-6.txt");
+    private static final Path RANDOM_INPUT = OUTPUT_DIR.resolve("adaptive-random.txt");
+    private static final Path SORTED_INPUT = OUTPUT_DIR.resolve("adaptive-sorted.txt");
+    private static final Path DUPLICATED_INPUT = OUTPUT_DIR.resolve("adaptive-duplicated.txt");
+    private static final Path NON_ASCII_INPUT = OUTPUT_DIR.resolve("adaptive-non-ascii.txt");
+    private static final Path NON_ASCII_DUPLICATED_INPUT = OUTPUT_DIR.resolve("adaptive-non-ascii-duplicated.txt");
+    private static final Path OUTPUT = OUTPUT_DIR.resolve("adaptive-output.txt");
+
+    private static final int LARGE_INPUT_SIZE = 50_000;
+
+    private static List<String> randomNames;
+
+    @BeforeAll
+    static void generateInputs() throws IOException {
+        randomNames = NameCorpus.randomNames(LARGE_INPUT_SIZE, 42);
+        NameCorpus.write(RANDOM_INPUT, randomNames);
+        NameCorpus.write(SORTED_INPUT, NameCorpus.sorted(randomNames));
+        NameCorpus.write(DUPLICATED_INPUT, NameCorpus.duplicatedNames(LARGE_INPUT_SIZE, 50, 7));
+        NameCorpus.write(NON_ASCII_INPUT, List.of("Jos\u00e9 \u00c1lvarez", "Zo\u00eb Bront\u00eb"));
+        NameCorpus.write(NON_ASCII_DUPLICATED_INPUT, NameCorpus.duplicatedNames(LARGE_INPUT_SIZE, 50, 7).stream()
+            .map(name -> name.replace('e', '\u00e9')).toList());
+    }
+
+    @AfterAll
+    static void deleteInputs() throws IOException {
+        for (Path path : new Path[]{RANDOM_INPUT, SORTED_INPUT, DUPLICATED_INPUT, NON_ASCII_INPUT, NON_ASCII_DUPLICATED_INPUT, OUTPUT}) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    void testProfileReflectsInputShape() {
+        final InputProfile small = InputProfile.of(SMALL_INPUT);
+        assertTrue(small.estimatedRecords() > 1000 && small.estimatedRecords() < 1100, "Unexpected estimate: " + small);
+        assertTrue(small.ascii(), "Expected ASCII input: " + small);
+
+        final InputProfile random = InputProfile.of(RANDOM_INPUT);
+        assertTrue(random.estimatedRecords() > LARGE_INPUT_SIZE * 0.8
+            && random.estimatedRecords() < LARGE_INPUT_SIZE * 1.2, "Estimate too far off: " + random);
+        assertTrue(random.presortedness() < 0.7, "Random input should not look presorted: " + random);
+
+        assertEquals(1.0, InputProfile.of(SORTED_INPUT).presortedness(), "Sorted input should look presorted.");
+        assertTrue(InputProfile.of(DUPLICATED_INPUT).duplicateRatio() > 0.8, "Expected mostly duplicates.");
+        assertFalse(InputProfile.of(NON_ASCII_INPUT).ascii(), "Expected non-ASCII input.");
+    }
+
+    @Test
+    void testSmallInputKeepsDefaultEngine() {
+        assertEquals(AdaptiveNameSortingService.BINARY_TREE,
+            new AdaptiveNameSortingService().selectEngine(SMALL_INPUT.toString()));
+    }
+
+    @Test
+    void testLargeInputsUseBulkSort() {
+        final AdaptiveNameSortingService service = new AdaptiveNameSortingService();
+        assertEquals(AdaptiveNameSortingService.COLLECTION, service.selectEngine(RANDOM_INPUT.toString()));
+        assertEquals(AdaptiveNameSortingService.COLLECTION, service.selectEngine(SORTED_INPUT.toString()));
+    }
+
+    @Test
+    void testRepeatedNamesUseDictionaryEncoding() {
+        assertEquals(AdaptiveNameSortingService.DICTIONARY,
+            new AdaptiveNameSortingService().selectEngine(DUPLICATED_INPUT.toString()));
+    }
+
+    @Test
+    void testRepeatedNonAsciiNamesUseBulkSort() {
+        assertEquals(AdaptiveNameSortingService.COLLECTION,
+            new AdaptiveNameSortingService().selectEngine(NON_ASCII_DUPLICATED_INPUT.toString()));
+    }
+
+    @Test
+    void testOverrideWins() {
+        final AdaptiveNameSortingService service = new AdaptiveNameSortingService();
+        service.setEngineOverride(AdaptiveNameSortingService.BINARY_TREE);
+        assertEquals(AdaptiveNameSortingService.BINARY_TREE, service.selectEngine(RANDOM_INPUT.toString()));
+
+        service.setEngineOverride("quantum");
+        assertThrows(IllegalArgumentException.class, () -> service.selectEngine(RANDOM_INPUT.toString()));
+    }
+
+    @Test
+    void testSelectedEngineSortsCorrectly() throws IOException {
+        new AdaptiveNameSortingService().sortNamesInFile(RANDOM_INPUT.toString(), OUTPUT.toString());
+        assertEquals(NameCorpus.sorted(randomNames), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testFailedSortDoesNotAffectTheNextOnSameThread() throws IOException {
+        final AdaptiveNameSortingService service = new AdaptiveNameSortingService();
+        assertThrows(RuntimeException.class,
+            () -> service.sortNamesInFile(OUTPUT_DIR.resolve("adaptive-missing.txt").toString(), OUTPUT.toString()));
+
+        service.sortNamesInFile(DUPLICATED_INPUT.toString(), OUTPUT.toString());
+        assertEquals(NameCorpus.sorted(Files.readAllLines(DUPLICATED_INPUT)), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testProgressSettingsReachTheSelectedEngine() {
+        final List<Progress> samples = Collections.synchronizedList(new ArrayList<>());
+        final AdaptiveNameSortingService service = new AdaptiveNameSortingService();
+        service.setProgressListener(samples::add);
+
+        service.setProgressIntervalMillis(5);
+        service.sortNamesInFile(RANDOM_INPUT.toString(), OUTPUT.toString());
+        assertFalse(samples.isEmpty(), "No progress was reported.");
+        assertEquals(Phase.DONE, samples.get(samples.size() - 1).phase());
+        assertEquals(LARGE_INPUT_SIZE, samples.get(samples.size() - 1).namesWritten());
+
+        samples.clear();
+        service.setProgressIntervalMillis(0);
+        service.sortNamesInFile(RANDOM_INPUT.toString(), OUTPUT.toString());
+        assertTrue(samples.isEmpty(), "No progress is reported when disabled.");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.BurstTrie;
+import com.example.dd.nameSorter.model.IndexedName;
+import com.example.dd.nameSorter.model.Name;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BurstTrieTests {
+
+    private static List<Name> sortWithTrie(List<String> names) {
+        final BurstTrie trie = new BurstTrie();
+        names.stream().map(Name::new).forEach(trie::add);
+        assertEquals(names.size(), trie.size());
+        return trie.sortedNames();
+    }
+
+    private static List<String> sortedWithTrie(List<String> names) {
+        return sortWithTrie(names).stream().map(Name::toString).toList();
+    }
+
+    @Test
+    void testRandomNames() {
+        final List<String> names = NameCorpus.randomNames(50_000, 37);
+        assertEquals(NameCorpus.sorted(names), sortedWithTrie(names));
+    }
+
+    @Test
+    void testRepeatedSurnamesAndNames() {
+        final List<String> names = NameCorpus.duplicatedNames(20_000, 30, 38);
+        assertEquals(NameCorpus.sorted(names), sortedWithTrie(names));
+    }
+
+    @Test
+    void testPrefixesCaseAndNonAsciiSurnames() {
+        final List<String> names = new ArrayList<>();
+        final String[] surnames = {"Mac", "MacDonald", "macdonald", "MACDONALDS", "Mc", "McKenzie", "Van", "VanDyke",
+            "Vandyke", "\u00c1lvarez", "\u00e1lvarez", "Alvarez", "Zo\u00eb", "Zoe", "Kelvin", "kelvin"};
+        for (int i = 0; i < 3_000; i++) {
+            names.add((i % 2 == 0 ? "Ava " : "ava Grace ") + surnames[(i * 7) % surnames.length]);
+        }
+        assertEquals(NameCorpus.sorted(names), sortedWithTrie(names));
+    }
+
+    @Test
+    void testEqualNamesKeepInsertionOrder() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            names.add(i % 2 == 0 ? "Janet Parsons" : "JANET PARSONS");
+        }
+        assertEquals(names, sortedWithTrie(names));
+    }
+
+    @Test
+    void testEqualSurnamesShareOneString() {
+        final List<Name> sorted = sortWithTrie(NameCorpus.duplicatedNames(5_000, 10, 39));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getLastName().equals(sorted.get(i - 1).getLastName())) {
+                assertSame(sorted.get(i - 1).getLastName(), sorted.get(i).getLastName());
+            }
+        }
+    }
+
+    @Test
+    void testAddedNamesAreNotChanged() {
+        final Path source = Path.of("rows.csv");
+        final List<Name> names = new ArrayList<>();
+        final List<String> lastNames = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // equal surnames in distinct strings, which the trie shares in its copies
+            final Name name = new IndexedName("Janet" + i % 10, new String("Parsons"), source, i * 20L, 19);
+            names.add(name);
+            lastNames.add(name.getLastName());
+        }
+
+        final BurstTrie trie = new BurstTrie();
+        names.forEach(trie::add);
+        final List<Name> sorted = trie.sortedNames();
+
+        for (int i = 0; i < names.size(); i++) {
+            assertSame(lastNames.get(i), names.get(i).getLastName(), "The trie changed an added name.");
+        }
+        for (int i = 1; i < sorted.size(); i++) {
+            assertSame(sorted.get(0).getLastName(), sorted.get(i).getLastName());
+            final IndexedName row = (IndexedName) sorted.get(i);
+            assertEquals(19, row.getLength(), "Copies keep the row of the name.");
+            assertSame(source, row.getSource());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.CheckpointedSortJobService;
+import com.example.dd.nameSorter.service.CheckpointedSortJobService.Checkpoint;
+import com.example.dd.nameSorter.service.CheckpointedSortJobService.JobResult;
+import com.example.dd.nameSorter.service.CheckpointedSortJobService.Phase;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointedSortJobServiceTests {
+
+    private static final Path JOB_DIR = Path.of("files/job-tests");
+
+    private static final Path WORK_DIR = JOB_DIR.resolve("work");
+    private static final Path INPUT = JOB_DIR.resolve("input.txt");
+    private static final Path OUTPUT = JOB_DIR.resolve("sorted.txt");
+
+    /**
+     * Stands in for the process being killed right after a checkpoint.
+     */
+    private static final class SimulatedKill extends RuntimeException {}
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        NameCorpus.deleteRecursively(JOB_DIR);
+    }
+
+    private static CheckpointedSortJobService newJobService() {
+        final CheckpointedSortJobService service = new CheckpointedSortJobService();
+        service.setWorkDir(WORK_DIR.toString());
+        service.setRunSize(1_000);
+        service.setCheckpointEvery(700);
+        return service;
+    }
+
+    /**
+     * Runs the job until the given checkpoint is on disk, then kills it.
+     */
+    private static List<Checkpoint> runUntilKilled(String jobId, int killAtCheckpoint) {
+        final List<Checkpoint> checkpoints = new ArrayList<>();
+        final CheckpointedSortJobService service = newJobService();
+        service.setCheckpointListener(checkpoint -> {
+            checkpoints.add(checkpoint);
+            if (checkpoints.size() == killAtCheckpoint) {
+                throw new SimulatedKill();
+            }
+        });
+        assertThrows(SimulatedKill.class, () -> service.sortJob(jobId, INPUT.toString(), OUTPUT.toString()));
+        return checkpoints;
+    }
+
+    @Test
+    void testJobSortsLikeStableSort() throws IOException {
+        final List<String> names = NameCorpus.duplicatedNames(4_500, 300, 38);
+        NameCorpus.write(INPUT, names);
+
+        final JobResult result = newJobService().sortJob("fresh", INPUT.toString(), OUTPUT.toString());
+
+        assertFalse(result.resumed());
+        assertEquals(4_500, result.names());
+        assertEquals(5, result.runs());
+        assertTrue(result.checkpoints() > 5, "Expected checkpoints for runs and merge, got " + result.checkpoints());
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+
+        try (Stream<Path> files = Files.list(WORK_DIR.resolve("fresh"))) {
+            assertEquals(List.of("checkpoint.properties"), files.map(path -> path.getFileName().toString()).toList(),
+                "Runs are deleted once the job is done.");
+        }
+    }
+
+    @Test
+    void testResumeDuringRuns() throws IOException {
+        final List<String> names = NameCorpus.randomNames(4_500, 39);
+        NameCorpus.write(INPUT, names);
+
+        final List<Checkpoint> checkpoints = runUntilKilled("runs", 2);
+        assertEquals(Phase.RUNS, checkpoints.get(1).phase());
+        assertEquals(2, checkpoints.get(1).runs());
+        assertTrue(checkpoints.get(1).inputOffset() > 0 && checkpoints.get(1).inputOffset() < Files.size(INPUT));
+
+        final JobResult result = newJobService().sortJob("runs", INPUT.toString(), OUTPUT.toString());
+        assertTrue(result.resumed());
+        assertEquals(5, result.runs());
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testResumeDuringMerge() throws IOException {
+        final List<String> names = NameCorpus.duplicatedNames(4_500, 200, 40);
+        NameCorpus.write(INPUT, names);
+
+        // 5 run checkpoints, the start of the merge, then 2 merge checkpoints of 700 names
+        final List<Checkpoint> checkpoints = runUntilKilled("merge", 8);
+        final Checkpoint last = checkpoints.get(checkpoints.size() - 1);
+        assertEquals(Phase.MERGE, last.phase());
+        assertEquals(1_400, Arrays.stream(last.mergedFromRuns()).sum());
+
+        // the killed process may have written past the checkpoint; it is dropped on resume
+        Files.writeString(OUTPUT, "Partially Written", StandardOpenOption.APPEND);
+
+        final JobResult result = newJobService().sortJob("merge", INPUT.toString(), OUTPUT.toString());
+        assertTrue(result.resumed());
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testResumeDuringMergePasses() throws IOException {
+        final List<String> names = NameCorpus.duplicatedNames(9_500, 300, 44);
+        NameCorpus.write(INPUT, names);
+
+        // 10 runs merged 3 at a time: 10 run checkpoints, the start of the merge, then 2 of 4 groups of the first pass
+        final List<Checkpoint> checkpoints = new ArrayList<>();
+        final CheckpointedSortJobService killed = newJobService();
+        killed.setMaxOpenFiles(3);
+        killed.setCheckpointListener(checkpoint -> {
+            checkpoints.add(checkpoint);
+            if (checkpoints.size() == 13) {
+                throw new SimulatedKill();
+            }
+        });
+        assertThrows(SimulatedKill.class, () -> killed.sortJob("passes", INPUT.toString(), OUTPUT.toString()));
+        final Checkpoint last = checkpoints.get(checkpoints.size() - 1);
+        assertEquals(Phase.MERGE, last.phase());
+        assertEquals(0, last.mergePass());
+        assertEquals(2, last.mergedGroups());
+
+        final List<Checkpoint> resumedCheckpoints = new ArrayList<>();
+        final CheckpointedSortJobService resumed = newJobService();
+        resumed.setMaxOpenFiles(3);
+        resumed.setCheckpointListener(resumedCheckpoints::add);
+        final JobResult result = resumed.sortJob("passes", INPUT.toString(), OUTPUT.toString());
+
+        assertTrue(result.resumed());
+        assertEquals(9_500, result.names());
+        assertEquals(10, result.runs());
+        assertEquals(2, resumedCheckpoints.get(resumedCheckpoints.size() - 1).mergePass(), "10 runs, then 4, then 2");
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+
+        try (Stream<Path> files = Files.list(WORK_DIR.resolve("passes"))) {
+            assertEquals(List.of("checkpoint.properties"), files.map(path -> path.getFileName().toString()).toList(),
+                "Runs of every pass are deleted once the job is done.");
+        }
+    }
+
+    @Test
+    void testRerunOfCompletedJob() throws IOException {
+        final List<String> names = NameCorpus.randomNames(1_500, 41);
+        NameCorpus.write(INPUT, names);
+
+        newJobService().sortJob("done", INPUT.toString(), OUTPUT.toString());
+        final JobResult rerun = newJobService().sortJob("done", INPUT.toString(), OUTPUT.toString());
+
+        assertTrue(rerun.resumed());
+        assertEquals(0, rerun.checkpoints());
+        assertEquals(1_500, rerun.names());
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testResumeRejectsChangedInput() throws IOException {
+        NameCorpus.write(INPUT, NameCorpus.randomNames(2_500, 42));
+        runUntilKilled("changed", 1);
+
+        NameCorpus.write(INPUT, NameCorpus.randomNames(2_600, 43));
+        assertThrows(IllegalStateException.class,
+            () -> newJobService().sortJob("changed", INPUT.toString(), OUTPUT.toString()));
+    }
+
+    @Test
+    void testInvalidJobId() {
+        assertThrows(IllegalArgumentException.class,
+            () -> newJobService().sortJob("../escape", INPUT.toString(), OUTPUT.toString()));
+    }
+}
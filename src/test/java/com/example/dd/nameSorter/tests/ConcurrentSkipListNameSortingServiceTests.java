@@ -0,0 +1,165 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.ConcurrentSkipListBag;
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.ConcurrentSkipListNameSortingService;
+import com.example.dd.nameSorter.service.RejectedRecordSink;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentSkipListNameSortingServiceTests {
+
+    private static final Path OUTPUT_DIR = Path.of("files");
+    private static final Path REJECTED_DIR = OUTPUT_DIR.resolve("concurrent-rejected");
+
+    private static final Path INPUT = OUTPUT_DIR.resolve("concurrent-input.txt");
+    private static final Path OUTPUT = OUTPUT_DIR.resolve("concurrent-output.txt");
+    private static final Path SIDECAR = RejectedRecordSink.sidecarPath(REJECTED_DIR.toString(), INPUT);
+
+    private static final int PARSER_THREADS = 4;
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        for (Path path : new Path[]{INPUT, OUTPUT, SIDECAR, REJECTED_DIR}) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static ConcurrentSkipListNameSortingService newService() {
+        final ConcurrentSkipListNameSortingService service = new ConcurrentSkipListNameSortingService();
+        service.setParserThreads(PARSER_THREADS);
+        service.setRejectedRecordsDir(REJECTED_DIR.toString());
+        return service;
+    }
+
+    @Test
+    void testBagKeepsInputOrderOfEqualNamesInsertedFromManyThreads() throws Exception {
+        final List<String> names = NameCorpus.duplicatedNames(40_000, 50, 51);
+        final ConcurrentSkipListBag<Name> bag = new ConcurrentSkipListBag<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(PARSER_THREADS);
+        try {
+            final List<Future<?>> inserts = new ArrayList<>();
+            for (int thread = 0; thread < PARSER_THREADS; thread++) {
+                final int first = thread;
+                inserts.add(executor.submit(() -> {
+                    // interleave the threads over the input, such that equal names come from different threads
+                    for (int i = first; i < names.size(); i += PARSER_THREADS) {
+                        bag.insert(new Name(names.get(i)), i);
+                    }
+                }));
+            }
+            for (Future<?> insert : inserts) {
+                insert.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(names.size(), bag.size());
+        assertEquals(NameCorpus.sorted(names), bag.traverseInOrder().stream().map(Name::toString).toList());
+    }
+
+    @Test
+    void testBagRejectsDuplicateOrdinal() {
+        final ConcurrentSkipListBag<Name> bag = new ConcurrentSkipListBag<>();
+        bag.insert(new Name("Janet Parsons"), 7);
+        bag.insert(new Name("Vaughn Lewis"), 7); // not equal, so the same ordinal is fine
+        assertThrows(IllegalArgumentException.class, () -> bag.insert(new Name("Janet Parsons"), 7));
+        assertEquals(2, bag.size());
+    }
+
+    @Test
+    void testSortsLikeStableSortOnSeveralThreads() throws IOException {
+        // large enough for every parser thread to get a range
+        final List<String> names = NameCorpus.duplicatedNames(60_000, 500, 52);
+        assertTrue(names.stream().mapToLong(name -> name.length() + 1).sum() > PARSER_THREADS * 64 * 1024);
+        NameCorpus.write(INPUT, names);
+
+        newService().sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testRejectedLinesAreNumberedAcrossRanges() throws IOException {
+        final List<String> lines = new ArrayList<>(NameCorpus.randomNames(30_000, 53));
+        final List<String> expectedRejected = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber += 7_001) {
+            lines.set(lineNumber - 1, "Madonna");
+            expectedRejected.add(lineNumber + "\tTOO_FEW_NAMES\tMadonna");
+        }
+        NameCorpus.write(INPUT, lines);
+
+        newService().sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        final List<String> valid = lines.stream().filter(line -> !line.equals("Madonna")).toList();
+        assertEquals(NameCorpus.sorted(valid), Files.readAllLines(OUTPUT));
+        assertEquals(expectedRejected, Files.readAllLines(SIDECAR));
+    }
+
+    @Test
+    void testManyRejectedLinesAreSpilledPerRange() throws IOException {
+        final List<String> rejectedPartsBefore = rejectedParts();
+        final List<String> lines = new ArrayList<>(NameCorpus.randomNames(60_000, 54));
+        final List<String> expectedRejected = new ArrayList<>();
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber += 3) {
+            lines.set(lineNumber - 1, "A B C D E");
+            expectedRejected.add(lineNumber + "\tTOO_MANY_NAMES\tA B C D E");
+        }
+        NameCorpus.write(INPUT, lines);
+
+        newService().sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(expectedRejected, Files.readAllLines(SIDECAR));
+        assertEquals(rejectedPartsBefore, rejectedParts(), "The rejected lines parts should be deleted.");
+    }
+
+    private static List<String> rejectedParts() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith("rejected-") && name.endsWith(".part"))
+                .sorted()
+                .toList();
+        }
+    }
+
+    @Test
+    void testMalformedInputFailsLikeOtherEngines() throws IOException {
+        final ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.writeBytes("Janet Parsons\nVaughn Lewis\nAdonis Julius Archer\n".getBytes(StandardCharsets.UTF_8));
+        input.writeBytes(new byte[]{'J', 'o', (byte) 0xC3, '(', ' ', 'S', 'm', 'i', 't', 'h', '\n'}); // 0xC3 starts a 2-byte sequence
+        Files.createDirectories(OUTPUT_DIR);
+        Files.write(INPUT, input.toByteArray());
+
+        final RuntimeException expected = assertThrows(RuntimeException.class,
+            () -> new CollectionNameSortingService().sortNamesInFile(INPUT.toString(), OUTPUT.toString()));
+        assertTrue(expected.getCause() instanceof CharacterCodingException, expected.toString());
+
+        final RuntimeException actual = assertThrows(RuntimeException.class,
+            () -> newService().sortNamesInFile(INPUT.toString(), OUTPUT.toString()));
+        assertTrue(actual.getCause() instanceof CharacterCodingException, actual.toString());
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void testNegativeParserThreads() {
+        final ConcurrentSkipListNameSortingService service = new ConcurrentSkipListNameSortingService();
+        assertThrows(IllegalArgumentException.class, () -> service.setParserThreads(-1));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.ConcurrentSkipListNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures how the concurrent skip list engine scales with the number of parser threads, against the single-threaded
+ * binary search tree engine on the same file. Sorted names go to a null standard output.
+ * The speedup is bounded by the available processors, which are printed with the results.
+ * Excluded from the regular build; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ConcurrentSortingScalingBenchmarkTests {
+
+    private static final Path INPUT = Path.of("files/concurrent-benchmark.txt");
+
+    private static final int CORPUS_SIZE = 1_000_000;
+
+    private static final int ROUNDS = 5; // the first rounds warm up the JIT, the best round is reported
+
+    private static final int[] PARSER_THREADS = {1, 2, 4, 8};
+
+    @BeforeAll
+    static void writeInput() throws IOException {
+        NameCorpus.write(INPUT, NameCorpus.randomNames(CORPUS_SIZE, 54));
+    }
+
+    @AfterAll
+    static void deleteInput() throws IOException {
+        Files.deleteIfExists(INPUT);
+    }
+
+    private static long bestSortNanos(Supplier<FileContentSortingEvaluationService> newService) {
+        long bestNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final FileContentSortingEvaluationService service = newService.get();
+            service.setProgressIntervalMillis(0);
+            System.gc(); // not to time the garbage of the previous round
+            final long start = System.nanoTime();
+            service.sortNamesInFile(INPUT.toString(), FileContentSortingEvaluationService.STANDARD_STREAM);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos;
+    }
+
+    @Test
+    void benchmarkParserThreads() {
+
+        final long binaryTreeNanos = bestSortNanos(() -> new BinaryTreeNameSortingService() {
+            @Override
+            protected OutputStream openStandardOutput() {
+                return OutputStream.nullOutputStream();
+            }
+        });
+        System.out.printf("BENCHMARK %-40s %,12.0f names/s (%d available processors)%n",
+            "BinaryTreeNameSortingService", CORPUS_SIZE * 1e9 / binaryTreeNanos, Runtime.getRuntime().availableProcessors());
+
+        long oneThreadNanos = 0;
+        for (int threads : PARSER_THREADS) {
+            final long nanos = bestSortNanos(() -> {
+                final ConcurrentSkipListNameSortingService service = new ConcurrentSkipListNameSortingService() {
+                    @Override
+                    protected OutputStream openStandardOutput() {
+                        return OutputStream.nullOutputStream();
+                    }
+                };
+                service.setParserThreads(threads);
+                return service;
+            });
+            if (threads == 1) {
+                oneThreadNanos = nanos;
+            }
+            System.out.printf("BENCHMARK %-40s %,12.0f names/s %5.2fx vs 1 thread %5.2fx vs binary tree%n",
+                "ConcurrentSkipList, " + threads + " parser threads", CORPUS_SIZE * 1e9 / nanos,
+                (double) oneThreadNanos / nanos, (double) binaryTreeNanos / nanos);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.IndexedName;
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.model.NameDictionary;
+import com.example.dd.nameSorter.service.DictionaryEncodedNameSortingService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryEncodedNameSortingServiceTests {
+
+    private static final Path INPUT = Path.of("files/dictionary-input.txt");
+    private static final Path OUTPUT = Path.of("files/dictionary-output.txt");
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        Files.deleteIfExists(INPUT);
+        Files.deleteIfExists(OUTPUT);
+    }
+
+    private void assertSortedLikeStableSort(List<String> names) throws IOException {
+        NameCorpus.write(INPUT, names);
+
+        new DictionaryEncodedNameSortingService().sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testCaseInsensitiveRankTiesKeepInputOrder() throws IOException {
+        // symbols differing only in case share a rank, so these names all tie and must stay in input order
+        final List<String> names = new ArrayList<>();
+        final String[] givenNames = {"Ava", "ava", "AVA"};
+        final String[] surnames = {"Smith", "smith", "SMITH", "Smyth"};
+        for (int i = 0; i < 5_000; i++) {
+            names.add(givenNames[i % givenNames.length] + " " + surnames[(i / 3) % surnames.length]);
+        }
+        assertSortedLikeStableSort(names);
+    }
+
+    @Test
+    void testEqualSurnamesKeepGivenNameOrderAcrossBothPasses() throws IOException {
+        // the surname pass must keep the given name order of the first pass, and both passes the input order of ties
+        final Random random = new Random(29);
+        final List<String> names = new ArrayList<>();
+        for (String name : NameCorpus.duplicatedNames(40_000, 200, 29)) {
+            names.add(random.nextBoolean() ? name : name.toUpperCase(Locale.ROOT));
+        }
+        assertSortedLikeStableSort(names);
+    }
+
+    @Test
+    void testNonAsciiNames() throws IOException {
+        // ranked by String.compareToIgnoreCase like the other engines, although auto mode only selects ASCII input
+        final List<String> names = new ArrayList<>();
+        final String[] surnames = {"\u00c1lvarez", "\u00e1lvarez", "Alvarez", "Zo\u00eb", "ZO\u00cb", "Zoe", "\u00d8ster", "Oster",
+            "Stra\u00dfe", "Strasse", "\u0130lhan", "ilhan"};
+        final String[] givenNames = {"Jos\u00e9", "JOS\u00c9", "Jose", "\u00c9lise"};
+        for (int i = 0; i < 2_000; i++) {
+            names.add(givenNames[i % givenNames.length] + " " + surnames[(i * 7) % surnames.length]);
+        }
+        assertSortedLikeStableSort(names);
+    }
+
+    @Test
+    void testIndexedNamesKeepTheirRows() {
+        final Path source = Path.of("rows.csv");
+        final List<Name> rows = new ArrayList<>();
+        final List<String> names = NameCorpus.duplicatedNames(5_000, 40, 30);
+        long offset = 0;
+        for (int i = 0; i < names.size(); i++) {
+            final Name name = new Name(i % 2 == 0 ? names.get(i) : names.get(i).toLowerCase(Locale.ROOT));
+            final int length = name.toString().length() + 4;
+            rows.add(new IndexedName(name.getGivenName(), name.getLastName(), source, offset, length));
+            offset += length + 1;
+        }
+
+        final NameDictionary dictionary = new NameDictionary();
+        rows.forEach(dictionary::add);
+        final List<Name> sorted = dictionary.sortedNames();
+
+        final List<Name> expected = new ArrayList<>(rows);
+        Collections.sort(expected); // stable
+        assertEquals(expected.size(), sorted.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final IndexedName expectedRow = (IndexedName) expected.get(i);
+            final IndexedName actualRow = (IndexedName) sorted.get(i);
+            assertEquals(expectedRow.toString(), actualRow.toString());
+            assertEquals(expectedRow.getOffset(), actualRow.getOffset(), "Row of name " + i);
+            assertEquals(expectedRow.getLength(), actualRow.getLength(), "Row of name " + i);
+            assertSame(source, actualRow.getSource());
+        }
+    }
+
+    @Test
+    void testIndexedNamesAreNotMixed() {
+        final NameDictionary plainFirst = new NameDictionary();
+        plainFirst.add(new Name("Janet Parsons"));
+        assertThrows(IllegalArgumentException.class,
+            () -> plainFirst.add(new IndexedName("Vaughn", "Lewis", Path.of("rows.csv"), 0, 12)));
+
+        final NameDictionary indexedFirst = new NameDictionary();
+        indexedFirst.add(new IndexedName("Janet", "Parsons", Path.of("rows.csv"), 0, 13));
+        assertThrows(IllegalArgumentException.class, () -> indexedFirst.add(new Name("Vaughn Lewis")));
+
+        final NameDictionary twoSources = new NameDictionary();
+        twoSources.add(new IndexedName("Janet", "Parsons", Path.of("rows.csv"), 0, 13));
+        assertThrows(IllegalArgumentException.class,
+            () -> twoSources.add(new IndexedName("Vaughn", "Lewis", Path.of("other.csv"), 0, 12)));
+    }
+}
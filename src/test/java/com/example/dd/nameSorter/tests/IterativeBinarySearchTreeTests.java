@@ -0,0 +1,94 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.IterativeBinarySearchTree;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IterativeBinarySearchTreeTests {
+
+    private static final int OPERATIONS = 20_000;
+
+    private static final int VALUE_RANGE = 2_000; // small enough to produce plenty of duplicates
+
+    // Reference implementation: a sorted list
+    private static void insertSorted(List<Integer> sorted, int value) {
+        int index = Collections.binarySearch(sorted, value);
+        sorted.add(index < 0 ? -index - 1 : index, value);
+    }
+
+    @Test
+    void testInsertAndDeleteKeepOrderAndSizes() {
+        final Random random = new Random(30);
+        final IterativeBinarySearchTree<Integer> tree = new IterativeBinarySearchTree<>();
+        final List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int value = random.nextInt(VALUE_RANGE);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove((Integer) value), tree.delete(value), "Unexpected delete result for " + value);
+            } else if (random.nextBoolean()) {
+                tree.insert(value);
+                insertSorted(expected, value);
+            } else {
+                tree.fingerInsert(value);
+                insertSorted(expected, value);
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        assertEquals(expected, tree.traverseInOrder());
+    }
+
+    @Test
+    void testRankSelectAndRanges() {
+        final Random random = new Random(31);
+        final IterativeBinarySearchTree<Integer> tree = new IterativeBinarySearchTree<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            final int value = random.nextInt(VALUE_RANGE);
+            tree.insert(value);
+            insertSorted(expected, value);
+        }
+
+        for (int k = 0; k < expected.size(); k += 97) {
+            assertEquals(expected.get(k), tree.select(k), "select(" + k + ")");
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(expected.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.select(-1));
+
+        for (int value = -1; value <= VALUE_RANGE; value += 13) {
+            final int rank = value;
+            assertEquals(expected.stream().filter(v -> v < rank).count(), tree.rank(value), "rank(" + value + ")");
+        }
+
+        for (int i = 0; i < 200; i++) {
+            final int from = random.nextInt(VALUE_RANGE);
+            final int to = from + random.nextInt(VALUE_RANGE / 4) - VALUE_RANGE / 20; // sometimes empty (to < from)
+            final List<Integer> inRange = expected.stream().filter(v -> v >= from && v <= to).toList();
+
+            assertEquals(inRange.size(), tree.rangeCount(from, to), "rangeCount(" + from + ", " + to + ")");
+
+            final List<Integer> iterated = new ArrayList<>();
+            final Iterator<Integer> iterator = tree.range(from, to);
+            iterator.forEachRemaining(iterated::add);
+            assertEquals(inRange, iterated, "range(" + from + ", " + to + ")");
+        }
+    }
+
+    @Test
+    void testEmptyTree() {
+        final IterativeBinarySearchTree<Integer> tree = new IterativeBinarySearchTree<>();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.rank(5));
+        assertEquals(0, tree.rangeCount(1, 9));
+        assertFalse(tree.range(1, 9).hasNext());
+        assertFalse(tree.delete(5));
+        assertTrue(tree.traverseInOrder().isEmpty());
+    }
+}
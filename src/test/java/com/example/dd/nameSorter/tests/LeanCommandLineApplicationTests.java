@@ -0,0 +1,157 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.LeanCommandLineApplication;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the lean launcher on explicit environment variables and configuration files rather than through its main method,
+ * which would read those of the process and configure logging for the whole test JVM.
+ */
+public class LeanCommandLineApplicationTests {
+
+    private static final Path TEMPLATE_DIR = Path.of("src/test/resources/files");
+    private static final Path OUTPUT_DIR = Path.of("files/lean");
+
+    private static final Path DEFAULT_INPUT = TEMPLATE_DIR.resolve("unsorted-names-list.txt");
+    private static final Path CUSTOM_INPUT = TEMPLATE_DIR.resolve("input.txt");
+    private static final Path MISSING_INPUT = TEMPLATE_DIR.resolve("definitely-not-here.txt");
+    private static final Path EXPECTED_DEFAULT_OUTPUT = TEMPLATE_DIR.resolve("sorted-names-list-expected.txt");
+    private static final Path EXPECTED_CUSTOM_OUTPUT = TEMPLATE_DIR.resolve("output-expected.txt");
+    private static final Path OUTPUT = OUTPUT_DIR.resolve("output.txt");
+    private static final Path OTHER_OUTPUT = OUTPUT_DIR.resolve("not-this-one.txt");
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        NameCorpus.deleteRecursively(OUTPUT_DIR);
+    }
+
+    private static void assertOutputContent(Path actualPath, Path expectedPath) throws IOException {
+        assertTrue(Files.exists(actualPath), "Actual output file was not created: " + actualPath);
+        assertEquals(Files.readString(expectedPath).trim(), Files.readString(actualPath).trim());
+    }
+
+    private static Map<String, String> applicationYaml() {
+        return new HashMap<>(LeanCommandLineApplication.loadConfigFiles());
+    }
+
+    private static void run(Map<String, String> environment, Map<String, String> configFiles, String... args) {
+        LeanCommandLineApplication.of(args, environment, configFiles).run();
+    }
+
+    @Test
+    void testPathArguments() throws IOException {
+        run(Map.of(), applicationYaml(), CUSTOM_INPUT.toString(), OUTPUT.toString());
+
+        assertOutputContent(OUTPUT, EXPECTED_CUSTOM_OUTPUT);
+    }
+
+    @Test
+    void testOptionArgumentsOverrideApplicationYaml() throws IOException {
+        run(Map.of(), applicationYaml(),
+            "--app.service.type=collection", "--app.input.file=" + DEFAULT_INPUT, "--app.output.file=" + OUTPUT);
+
+        assertOutputContent(OUTPUT, EXPECTED_DEFAULT_OUTPUT);
+    }
+
+    @Test
+    void testEnvironmentOverridesApplicationYaml() throws IOException {
+        final Map<String, String> configFiles = applicationYaml();
+        configFiles.put("app.service.type", "bubble");
+        configFiles.put("app.output.file", OTHER_OUTPUT.toString());
+
+        run(Map.of("APP_SERVICE_TYPE", "dictionary", "APP_OUTPUT_FILE", OUTPUT.toString()), configFiles, CUSTOM_INPUT.toString());
+
+        assertOutputContent(OUTPUT, EXPECTED_CUSTOM_OUTPUT);
+        assertFalse(Files.exists(OTHER_OUTPUT));
+    }
+
+    @Test
+    void testOptionArgumentsOverrideEnvironment() throws IOException {
+        run(Map.of("APP_OUTPUT_FILE", OTHER_OUTPUT.toString()), applicationYaml(),
+            "--app.output.file=" + OUTPUT, CUSTOM_INPUT.toString());
+
+        assertOutputContent(OUTPUT, EXPECTED_CUSTOM_OUTPUT);
+        assertFalse(Files.exists(OTHER_OUTPUT));
+    }
+
+    @Test
+    void testSystemPropertiesOverrideEnvironment() throws IOException {
+        System.setProperty("app.output.file", OUTPUT.toString());
+        try {
+            run(Map.of("APP_OUTPUT_FILE", OTHER_OUTPUT.toString()), applicationYaml(), CUSTOM_INPUT.toString());
+        } finally {
+            System.clearProperty("app.output.file");
+        }
+
+        assertOutputContent(OUTPUT, EXPECTED_CUSTOM_OUTPUT);
+        assertFalse(Files.exists(OTHER_OUTPUT));
+    }
+
+    @Test
+    void testEnvironmentUsesRelaxedNames() throws IOException {
+        // app.rows.name-column is APP_ROWS_NAMECOLUMN, as in Spring Boot
+        final Path input = OUTPUT_DIR.resolve("rows.csv");
+        Files.createDirectories(OUTPUT_DIR);
+        Files.write(input, List.of("1,Vaughn Lewis", "2,Janet Parsons", "3,Adonis Julius Archer"));
+
+        run(Map.of("APP_ROWS_DELIMITER", ",", "APP_ROWS_NAMECOLUMN", "1"), applicationYaml(), input.toString(), OUTPUT.toString());
+
+        assertEquals(List.of("3,Adonis Julius Archer", "1,Vaughn Lewis", "2,Janet Parsons"), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testEveryServiceType() throws IOException {
+        for (String type : new String[]{"binaryTree", "collection", "rangePartitioned", "dictionary", "burstTrie", "concurrent", "auto"}) {
+            run(Map.of(), applicationYaml(), "--app.service.type=" + type, CUSTOM_INPUT.toString(), OUTPUT.toString());
+
+            assertOutputContent(OUTPUT, EXPECTED_CUSTOM_OUTPUT);
+            Files.delete(OUTPUT);
+        }
+    }
+
+    @Test
+    void testUnknownServiceType() {
+        assertThrows(IllegalArgumentException.class,
+            () -> run(Map.of(), applicationYaml(), "--app.service.type=bubble", CUSTOM_INPUT.toString(), OUTPUT.toString()));
+        assertFalse(Files.exists(OUTPUT), "Output file should not be created.");
+    }
+
+    @Test
+    void testMissingInputFile() {
+        run(Map.of(), applicationYaml(), MISSING_INPUT.toString(), OUTPUT.toString());
+
+        assertFalse(Files.exists(OUTPUT), "Output file should not be created.");
+    }
+
+    @Test
+    void testApplicationYamlSetsEveryDefault() {
+        // watch mode is left out, as it registers a shutdown hook and blocks
+        for (String mode : new String[]{"sort", "merge", "job"}) {
+            assertDoesNotThrow(() -> run(Map.of(), applicationYaml(), "--app.mode=" + mode, MISSING_INPUT.toString(), OUTPUT.toString()),
+                "Missing a default of mode " + mode);
+        }
+        assertThrows(IllegalStateException.class, () -> run(Map.of(), Map.of(), CUSTOM_INPUT.toString(), OUTPUT.toString()),
+            "Without application.yml there are no defaults.");
+    }
+
+    @Test
+    void testLoggingProperties() {
+        final Map<String, String> properties = LeanCommandLineApplication.of(
+            new String[]{"--logging.level.com.example.dd.nameSorter=DEBUG"}, Map.of(), applicationYaml()).loggingProperties();
+
+        assertEquals("logs/nameSorter.log", properties.get("LOG_FILE"));
+        assertEquals("10MB", properties.get("LOG_FILE_MAX_SIZE"));
+        assertEquals("DEBUG", properties.get("LOG_LEVEL_APP"));
+        assertEquals("logback-lean.xml", properties.get("logback.configurationFile"));
+        assertNull(System.getProperty("LOG_FILE"), "Only main sets the logging properties.");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.Name;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates name files of arbitrary size and shape for tests and benchmarks.
+ * A fixed seed keeps the generated corpora reproducible between runs.
+ */
+public final class NameCorpus {
+
+    private static final String[] GIVEN_NAMES = {
+        "Adonis", "Ava", "Beau", "Benjamin", "Catherine", "Edward", "Evelyn", "Frankie", "Hunter", "Janet",
+        "Julius", "Leo", "London", "Marin", "Mathew", "Michael", "Mikayla", "Nathan", "Peter", "Shelby",
+        "Tristan", "Uriah", "Vaughn", "Andrew", "Conner", "Olivia", "Noah", "Emma", "Liam", "Sophia"
+    };
+
+    private static final String[] SURNAMES = {
+        "Alvarez", "Archer", "Bailey", "Bentley", "Carter", "Clarke", "Gardner", "Johnson", "Lewis", "Lindsey",
+        "Lopez", "MacDonald", "McKenzie", "Parsons", "Ritter", "Smith", "Taylor", "VanDyke", "Yoder", "Anderson"
+    };
+
+    private NameCorpus() {}
+
+    /**
+     * Generates random names made of one to three given names and a surname.
+     * Surname syllables are mixed in, so large corpora have many distinct surnames.
+     * @param count number of names
+     * @param seed random seed
+     * @return the generated names, in random order
+     */
+    public static List<String> randomNames(int count, long seed) {
+        final Random random = new Random(seed);
+        final List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final StringBuilder name = new StringBuilder();
+            final int givenNames = 1 + random.nextInt(3);
+            for (int g = 0; g < givenNames; g++) {
+                name.append(GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)]).append(' ');
+            }
+            name.append(SURNAMES[random.nextInt(SURNAMES.length)]);
+            name.append(SURNAMES[random.nextInt(SURNAMES.length)].toLowerCase());
+            names.add(name.toString());
+        }
+        return names;
+    }
+
+    /**
+     * Generates names drawn from a small pool, so most of them are duplicates.
+     * @param count number of names
+     * @param distinct size of the pool
+     * @param seed random seed
+     * @return the generated names, in random order
+     */
+    public static List<String> duplicatedNames(int count, int distinct, long seed) {
+        final List<String> pool = randomNames(distinct, seed);
+        final Random random = new Random(seed);
+        final List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(pool.get(random.nextInt(pool.size())));
+        }
+        return names;
+    }
+
+    /**
+     * Sorts the names the way the application does.
+     * @param names the names to sort
+     * @return a new list in {@link Name#compareTo} order
+     */
+    public static List<String> sorted(List<String> names) {
+        return names.stream().map(Name::new).sorted().map(Name::toString).toList();
+    }
+
+    /**
+     * Writes the names to a file, one per line.
+     * @param path the file to write
+     * @param names the names
+     * @return the path written
+     */
+    public static Path write(Path path, List<String> names) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (String name : names) {
+                writer.write(name);
+                writer.newLine();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Deletes a directory with everything in it, e.g. the files a test generated; does nothing if it does not exist.
+     * @param directory the directory to delete
+     */
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the hot-path overhead of progress reporting: the same file is sorted with progress disabled and with
+ * progress sampled every 100 ms (far more often than the default), alternating, and the best rounds are compared.
+ * Sorted names go to a null standard output, such that only reading, sorting and writing are timed.
+ * The overhead is reported against a budget of {@value #OVERHEAD_BUDGET_PERCENT}% rather than asserted,
+ * as it is within the run-to-run noise of a shared machine.
+ * Excluded from the regular build; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class ProgressReporterBenchmarkTests {
+
+    private static final Path INPUT = Path.of("files/progress-benchmark.txt");
+
+    private static final int CORPUS_SIZE = 1_000_000;
+
+    private static final int ROUNDS = 7; // the first rounds warm up the JIT, the best round is reported
+
+    private static final double OVERHEAD_BUDGET_PERCENT = 5;
+
+    @BeforeAll
+    static void writeInput() throws IOException {
+        NameCorpus.write(INPUT, NameCorpus.randomNames(CORPUS_SIZE, 48));
+    }
+
+    @AfterAll
+    static void deleteInput() throws IOException {
+        Files.deleteIfExists(INPUT);
+    }
+
+    private static void benchmark(String serviceName, Supplier<FileContentSortingEvaluationService> newService) {
+
+        long bestWithoutProgressNanos = Long.MAX_VALUE;
+        long bestWithProgressNanos = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            bestWithoutProgressNanos = Math.min(bestWithoutProgressNanos, timeSort(newService.get(), 0));
+            bestWithProgressNanos = Math.min(bestWithProgressNanos, timeSort(newService.get(), 100));
+        }
+
+        final double overheadPercent = 100.0 * (bestWithProgressNanos - bestWithoutProgressNanos) / bestWithoutProgressNanos;
+        System.out.printf("BENCHMARK %-30s %,8d ms without progress %,8d ms with progress %+6.1f%% overhead (%s %.0f%% budget)%n",
+            serviceName, bestWithoutProgressNanos / 1_000_000, bestWithProgressNanos / 1_000_000, overheadPercent,
+            overheadPercent < OVERHEAD_BUDGET_PERCENT ? "within" : "OVER", OVERHEAD_BUDGET_PERCENT);
+    }
+
+    private static long timeSort(FileContentSortingEvaluationService service, long progressIntervalMillis) {
+        service.setProgressIntervalMillis(progressIntervalMillis);
+        System.gc(); // not to time the garbage of the previous round
+        final long start = System.nanoTime();
+        service.sortNamesInFile(INPUT.toString(), FileContentSortingEvaluationService.STANDARD_STREAM);
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    void benchmarkCollectionService() {
+        benchmark("CollectionNameSortingService", () -> new CollectionNameSortingService() {
+            @Override
+            protected OutputStream openStandardOutput() {
+                return OutputStream.nullOutputStream();
+            }
+        });
+    }
+
+    @Test
+    void benchmarkBinaryTreeService() {
+        benchmark("BinaryTreeNameSortingService", () -> new BinaryTreeNameSortingService() {
+            @Override
+            protected OutputStream openStandardOutput() {
+                return OutputStream.nullOutputStream();
+            }
+        });
+    }
+}
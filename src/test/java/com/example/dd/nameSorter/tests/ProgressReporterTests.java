@@ -0,0 +1,112 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import com.example.dd.nameSorter.service.ProgressReporter.Phase;
+import com.example.dd.nameSorter.service.ProgressReporter.Progress;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProgressReporterTests {
+
+    private static final Path PROGRESS_DIR = Path.of("files/progress");
+
+    private static final Path INPUT = PROGRESS_DIR.resolve("input.txt");
+    private static final Path OUTPUT = PROGRESS_DIR.resolve("sorted.txt");
+
+    private final List<Progress> samples = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        NameCorpus.deleteRecursively(PROGRESS_DIR);
+    }
+
+    private Progress lastSample() {
+        assertFalse(samples.isEmpty(), "No progress was reported.");
+        return samples.get(samples.size() - 1);
+    }
+
+    @Test
+    void testCountsEveryLineAndName() throws IOException {
+        final List<String> names = new ArrayList<>(NameCorpus.randomNames(20_000, 44));
+        names.add("Madonna"); // rejected: a single name
+        NameCorpus.write(INPUT, names);
+
+        final FileContentSortingEvaluationService service = new CollectionNameSortingService();
+        service.setProgressIntervalMillis(5);
+        service.setProgressListener(samples::add);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        final Progress progress = lastSample();
+        assertEquals(Phase.DONE, progress.phase());
+        assertEquals(Files.size(INPUT), progress.bytesRead());
+        assertEquals(Files.size(INPUT), progress.totalBytes());
+        assertEquals(20_001, progress.linesParsed());
+        assertEquals(20_000, progress.namesInserted());
+        assertEquals(20_000, progress.namesWritten());
+        assertEquals(0, progress.etaMillis());
+        assertTrue(progress.heapUsedBytes() > 0 && progress.heapUsedBytes() <= progress.heapMaxBytes());
+
+        for (int i = 1; i < samples.size(); i++) {
+            assertTrue(samples.get(i).phase().compareTo(samples.get(i - 1).phase()) >= 0, "Phases go backwards: " + samples);
+        }
+    }
+
+    @Test
+    void testCountsNamesWrittenToShards() throws IOException {
+        NameCorpus.write(INPUT, NameCorpus.randomNames(10_000, 45));
+
+        final FileContentSortingEvaluationService service = new BinaryTreeNameSortingService();
+        service.setOutputShards(4);
+        service.setProgressIntervalMillis(5);
+        service.setProgressListener(samples::add);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(10_000, lastSample().namesWritten());
+    }
+
+    @Test
+    void testCountsRowBytes() throws IOException {
+        final List<String> rows = new ArrayList<>(List.of("id,name"));
+        final List<String> names = NameCorpus.randomNames(1_000, 46);
+        for (int i = 0; i < names.size(); i++) {
+            rows.add(i + "," + names.get(i));
+        }
+        NameCorpus.write(INPUT, rows);
+
+        final FileContentSortingEvaluationService service = new CollectionNameSortingService();
+        service.setRowDelimiter(",");
+        service.setNameColumn(1);
+        service.setHeaderRow(true);
+        service.setProgressIntervalMillis(5);
+        service.setProgressListener(samples::add);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        final Progress progress = lastSample();
+        assertEquals(1_000, progress.linesParsed(), "The header row is not parsed.");
+        assertEquals(Files.size(INPUT) - "id,name".length() - System.lineSeparator().length(), progress.bytesRead());
+        assertEquals(1_000, progress.namesWritten());
+    }
+
+    @Test
+    void testDisabled() throws IOException {
+        NameCorpus.write(INPUT, NameCorpus.randomNames(1_000, 47));
+
+        final FileContentSortingEvaluationService service = new CollectionNameSortingService();
+        service.setProgressIntervalMillis(0);
+        service.setProgressListener(samples::add);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertTrue(samples.isEmpty(), "No progress is reported when disabled.");
+        assertThrows(IllegalArgumentException.class, () -> service.setProgressIntervalMillis(-1));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.RangePartitionedNameSortingService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RangePartitionedNameSortingServiceTests {
+
+    private static final Path INPUT = Path.of("files/range-partitioned-input.txt");
+    private static final Path OUTPUT = Path.of("files/range-partitioned-output.txt");
+
+    private static final int PARTITIONS = 8;
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        Files.deleteIfExists(INPUT);
+        Files.deleteIfExists(OUTPUT);
+    }
+
+    private void assertSortedLikeStableSort(List<String> names) throws IOException {
+        NameCorpus.write(INPUT, names);
+
+        final RangePartitionedNameSortingService service = new RangePartitionedNameSortingService();
+        service.setPartitions(PARTITIONS);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testRandomNames() throws IOException {
+        assertSortedLikeStableSort(NameCorpus.randomNames(40_000, 11));
+    }
+
+    @Test
+    void testSkewedSurnamesKeepInputOrderOfEqualNames() throws IOException {
+        // every name is a Smith, and most names are repeated in different cases
+        final List<String> names = new ArrayList<>();
+        final String[] givenNames = {"John", "john", "JOHN", "Ava", "ava"};
+        for (int i = 0; i < 40_000; i++) {
+            names.add(givenNames[i % givenNames.length] + (i % 7 == 0 ? " smith" : " Smith"));
+        }
+        assertSortedLikeStableSort(names);
+    }
+}
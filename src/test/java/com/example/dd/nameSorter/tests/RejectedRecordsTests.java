@@ -0,0 +1,124 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.RejectedRecordSink;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RejectedRecordsTests {
+
+    private static final Path OUTPUT_DIR = Path.of("files");
+    private static final Path REJECTED_DIR = OUTPUT_DIR.resolve("rejected");
+
+    private static final Path INPUT = OUTPUT_DIR.resolve("rejected-input.txt");
+    private static final Path OUTPUT = OUTPUT_DIR.resolve("rejected-output.txt");
+    private static final Path SIDECAR = RejectedRecordSink.sidecarPath(REJECTED_DIR.toString(), INPUT);
+
+    // an input with the same file name in another directory
+    private static final Path OTHER_INPUT_DIR = OUTPUT_DIR.resolve("rejected-other");
+    private static final Path OTHER_INPUT = OTHER_INPUT_DIR.resolve(INPUT.getFileName());
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        for (Path path : new Path[]{INPUT, OUTPUT}) {
+            Files.deleteIfExists(path);
+        }
+        NameCorpus.deleteRecursively(REJECTED_DIR);
+        NameCorpus.deleteRecursively(OTHER_INPUT_DIR);
+    }
+
+    @Test
+    void testValidateMatchesConstructor() {
+        for (String line : new String[]{"", "  ", "Single", " Two\tNames ", "A B C D", "A B C D E", "A  B\u000BC D E"}) {
+            final Name.Validation validation = Name.validate(line);
+            if (validation == Name.Validation.VALID) {
+                assertDoesNotThrow(() -> new Name(line), "Expected valid: '" + line + "'");
+            } else {
+                final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> new Name(line));
+                assertEquals(validation.getMessage(), e.getMessage());
+            }
+        }
+        assertEquals(Name.Validation.EMPTY, Name.validate(null));
+        assertEquals(Name.Validation.TOO_FEW_NAMES, Name.validate("Single"));
+        assertEquals(Name.Validation.TOO_MANY_NAMES, Name.validate("A B C D E"));
+    }
+
+    @Test
+    void testParseMatchesConstructor() {
+        for (String line : new String[]{"Janet Parsons", " Two\tNames ", "Adonis Julius Archer", "A  B\u000BC D", "A\tB  C\u0001D E",
+                                        "Janet  Parsons", "\u0001Janet Parsons\r"}) {
+            final Name expected = new Name(line);
+            final Name actual = Name.parse(line);
+            assertNotNull(actual, "Expected valid: '" + line + "'");
+            assertEquals(expected.getGivenName(), actual.getGivenName(), "'" + line + "'");
+            assertEquals(expected.getLastName(), actual.getLastName(), "'" + line + "'");
+        }
+        for (String line : new String[]{"", "  ", "Single", "A B C D E", "A  B\u000BC D E"}) {
+            assertNull(Name.parse(line), "Expected invalid: '" + line + "'");
+        }
+        assertNull(Name.parse(null));
+    }
+
+    @Test
+    void testRejectedLinesAreWrittenToSidecar() throws IOException {
+        NameCorpus.write(INPUT, List.of("Janet Parsons", "Vaughn", "", "Adonis Julius Archer", "A B C D E"));
+
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        service.setRejectedRecordsDir(REJECTED_DIR.toString());
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertEquals(List.of("Adonis Julius Archer", "Janet Parsons"), Files.readAllLines(OUTPUT));
+        assertEquals(List.of(
+            "2\tTOO_FEW_NAMES\tVaughn",
+            "3\tEMPTY\t",
+            "5\tTOO_MANY_NAMES\tA B C D E"), Files.readAllLines(SIDECAR));
+    }
+
+    @Test
+    void testValidInputWritesNoSidecar() throws IOException {
+        NameCorpus.write(INPUT, List.of("Janet Parsons", "Adonis Julius Archer"));
+
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        service.setRejectedRecordsDir(REJECTED_DIR.toString());
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertFalse(Files.exists(SIDECAR), "No sidecar expected for valid input.");
+    }
+
+    @Test
+    void testSidecarIsUniquePerInputPath() throws IOException {
+        NameCorpus.write(INPUT, List.of("Janet Parsons", "Vaughn"));
+        NameCorpus.write(OTHER_INPUT, List.of("Adonis"));
+
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        service.setRejectedRecordsDir(REJECTED_DIR.toString());
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+        service.sortNamesInFile(OTHER_INPUT.toString(), OUTPUT.toString());
+
+        final Path otherSidecar = RejectedRecordSink.sidecarPath(REJECTED_DIR.toString(), OTHER_INPUT);
+        assertNotEquals(SIDECAR, otherSidecar);
+        assertEquals(List.of("2\tTOO_FEW_NAMES\tVaughn"), Files.readAllLines(SIDECAR));
+        assertEquals(List.of("1\tTOO_FEW_NAMES\tAdonis"), Files.readAllLines(otherSidecar));
+    }
+
+    @Test
+    void testCleanRerunDeletesStaleSidecar() throws IOException {
+        NameCorpus.write(INPUT, List.of("Janet Parsons", "Vaughn"));
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        service.setRejectedRecordsDir(REJECTED_DIR.toString());
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+        assertTrue(Files.exists(SIDECAR));
+
+        NameCorpus.write(INPUT, List.of("Janet Parsons", "Vaughn Lewis"));
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        assertFalse(Files.exists(SIDECAR), "The sidecar of the previous run should be deleted.");
+    }
+}
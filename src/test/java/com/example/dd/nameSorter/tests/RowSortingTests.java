@@ -0,0 +1,116 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.service.AdaptiveNameSortingService;
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.DictionaryEncodedNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import com.example.dd.nameSorter.service.RangePartitionedNameSortingService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RowSortingTests {
+
+    private static final Path OUTPUT_DIR = Path.of("files");
+
+    private static final Path CSV_INPUT = OUTPUT_DIR.resolve("rows-input.csv");
+    private static final Path TSV_INPUT = OUTPUT_DIR.resolve("rows-input.tsv");
+    private static final Path OUTPUT = OUTPUT_DIR.resolve("rows-output.txt");
+
+    private static final String HEADER = "id,name,city";
+
+    private static List<String> csvRows;
+
+    @BeforeAll
+    static void generateInputs() throws IOException {
+        final List<String> names = NameCorpus.randomNames(5_000, 33);
+        csvRows = new ArrayList<>();
+        final List<String> tsvRows = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            // quoted fields with embedded delimiters and quotes around the name column
+            final String city = i % 3 == 0 ? "\"Perth, \"\"WA\"\"\"" : "Sydney";
+            final String name = i % 2 == 0 ? "\"" + names.get(i) + "\"" : names.get(i);
+            csvRows.add(i + "," + name + "," + city);
+            tsvRows.add("row " + i + "\t" + city + "\t" + names.get(i));
+        }
+
+        final List<String> csvLines = new ArrayList<>();
+        csvLines.add(HEADER);
+        csvLines.addAll(csvRows);
+        csvLines.add("5000,Single,Nowhere"); // rejected: too few names
+        csvLines.add("5001"); // rejected: no name column
+        NameCorpus.write(CSV_INPUT, csvLines);
+        NameCorpus.write(TSV_INPUT, tsvRows);
+    }
+
+    @AfterAll
+    static void deleteInputs() throws IOException {
+        for (Path path : new Path[]{CSV_INPUT, TSV_INPUT, OUTPUT}) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static List<String> sortedRows(List<String> rows, Comparator<String> byName) {
+        return rows.stream().sorted(byName).toList(); // stable, as all sorting services are
+    }
+
+    private static List<FileContentSortingEvaluationService> services() {
+        return List.of(
+            new BinaryTreeNameSortingService(),
+            new CollectionNameSortingService(),
+            new RangePartitionedNameSortingService(),
+            new DictionaryEncodedNameSortingService(),
+            new AdaptiveNameSortingService());
+    }
+
+    @Test
+    void testCsvRowsAreSortedByNameColumn() throws IOException {
+        final List<String> expected = new ArrayList<>();
+        expected.add(HEADER);
+        expected.addAll(sortedRows(csvRows,
+            Comparator.comparing(row -> new Name(row.substring(row.indexOf(',') + 1).split(",")[0].replace("\"", "")))));
+
+        for (FileContentSortingEvaluationService service : services()) {
+            service.setRowDelimiter(",");
+            service.setNameColumn(1);
+            service.setHeaderRow(true);
+            service.setRejectedRecordsDir("");
+            service.sortNamesInFile(CSV_INPUT.toString(), OUTPUT.toString());
+
+            assertEquals(expected, Files.readAllLines(OUTPUT), service.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void testTsvRowsWithoutHeader() throws IOException {
+        final List<String> rows = Files.readAllLines(TSV_INPUT);
+        final List<String> expected = sortedRows(rows,
+            Comparator.comparing(row -> new Name(row.substring(row.lastIndexOf('\t') + 1))));
+
+        for (FileContentSortingEvaluationService service : services()) {
+            service.setRowDelimiter("\t");
+            service.setNameColumn(2);
+            service.setRejectedRecordsDir("");
+            service.sortNamesInFile(TSV_INPUT.toString(), OUTPUT.toString());
+
+            assertEquals(expected, Files.readAllLines(OUTPUT), service.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void testInvalidRowSettings() {
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        assertThrows(IllegalArgumentException.class, () -> service.setRowDelimiter(",;"));
+        assertThrows(IllegalArgumentException.class, () -> service.setNameColumn(-1));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.Name;
+import com.example.dd.nameSorter.service.BinaryTreeNameSortingService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedOutputTests {
+
+    private static final Path SHARD_DIR = Path.of("files/shards");
+
+    private static final Path INPUT = SHARD_DIR.resolve("input.txt");
+    private static final Path OUTPUT = SHARD_DIR.resolve("sorted.txt");
+    private static final Path MANIFEST = SHARD_DIR.resolve("sorted.manifest.tsv");
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        NameCorpus.deleteRecursively(SHARD_DIR);
+    }
+
+    private static List<String[]> manifestEntries() throws IOException {
+        final List<String> lines = Files.readAllLines(MANIFEST);
+        assertEquals("shard\trecords\tfirst\tlast", lines.get(0));
+        return lines.subList(1, lines.size()).stream().map(line -> line.split("\t")).toList();
+    }
+
+    private static List<List<String>> readShards(List<String[]> manifest) throws IOException {
+        final List<List<String>> shards = new ArrayList<>();
+        for (String[] entry : manifest) {
+            final List<String> shard = Files.readAllLines(SHARD_DIR.resolve(entry[0]));
+            assertEquals(Integer.parseInt(entry[1]), shard.size(), "Record count of " + entry[0]);
+            assertEquals(entry[2], shard.get(0), "First name of " + entry[0]);
+            assertEquals(entry[3], shard.get(shard.size() - 1), "Last name of " + entry[0]);
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    @Test
+    void testShardsByCount() throws IOException {
+        final List<String> names = NameCorpus.randomNames(10_000, 36);
+        NameCorpus.write(INPUT, names);
+
+        final FileContentSortingEvaluationService service = new CollectionNameSortingService();
+        service.setOutputShards(4);
+        service.setShardBy("count");
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        final List<String[]> manifest = manifestEntries();
+        assertEquals(List.of("sorted-00.txt", "sorted-01.txt", "sorted-02.txt", "sorted-03.txt"),
+            manifest.stream().map(entry -> entry[0]).toList());
+
+        final List<List<String>> shards = readShards(manifest);
+        shards.forEach(shard -> assertEquals(2_500, shard.size()));
+        assertEquals(NameCorpus.sorted(names), shards.stream().flatMap(List::stream).toList());
+        assertFalse(Files.exists(OUTPUT), "Only the shards are written.");
+    }
+
+    @Test
+    void testNoSurnameCrossesShards() throws IOException {
+        final List<String> names = NameCorpus.duplicatedNames(10_000, 40, 37);
+        NameCorpus.write(INPUT, names);
+
+        final FileContentSortingEvaluationService service = new BinaryTreeNameSortingService();
+        service.setOutputShards(8);
+        service.sortNamesInFile(INPUT.toString(), OUTPUT.toString());
+
+        final List<List<String>> shards = readShards(manifestEntries());
+        assertTrue(shards.size() > 1 && shards.size() <= 8, "Unexpected number of shards: " + shards.size());
+        assertEquals(NameCorpus.sorted(names), shards.stream().flatMap(List::stream).toList());
+
+        for (int i = 1; i < shards.size(); i++) {
+            final String previousSurname = new Name(shards.get(i - 1).get(shards.get(i - 1).size() - 1)).getLastName();
+            final String firstSurname = new Name(shards.get(i).get(0)).getLastName();
+            assertFalse(previousSurname.equalsIgnoreCase(firstSurname), "Surname split across shards: " + firstSurname);
+        }
+    }
+
+    @Test
+    void testInvalidShardSettings() {
+        final FileContentSortingEvaluationService service = new CollectionNameSortingService();
+        assertThrows(IllegalArgumentException.class, () -> service.setOutputShards(0));
+        assertThrows(IllegalArgumentException.class, () -> service.setShardBy("size"));
+    }
+}
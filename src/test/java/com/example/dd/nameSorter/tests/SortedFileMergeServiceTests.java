@@ -0,0 +1,93 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.SortedFileMergeService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedFileMergeServiceTests {
+
+    private static final Path TEMPLATE_DIR = Path.of("src/test/resources/files");
+    private static final Path MERGE_DIR = Path.of("files/merge");
+    private static final Path OUTPUT = MERGE_DIR.resolve("merged.txt");
+
+    private final List<Path> generatedFiles = new ArrayList<>();
+
+    @BeforeEach
+    void createMergeDirectory() throws IOException {
+        Files.createDirectories(MERGE_DIR);
+    }
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        for (Path path : generatedFiles) {
+            Files.deleteIfExists(path);
+        }
+        Files.deleteIfExists(OUTPUT);
+    }
+
+    private List<String> inputPaths(List<Path> paths) {
+        return paths.stream().map(Path::toString).toList();
+    }
+
+    @Test
+    void testMergeEqualsSortOfConcatenation() throws IOException {
+        final List<Path> inputs = List.of(
+            TEMPLATE_DIR.resolve("output-4-expected.txt"),
+            TEMPLATE_DIR.resolve("output-5-expected.txt"),
+            TEMPLATE_DIR.resolve("output-6-expected.txt"));
+
+        final List<String> concatenation = new ArrayList<>();
+        for (Path input : inputs) {
+            concatenation.addAll(Files.readAllLines(input));
+        }
+
+        final long count = new SortedFileMergeService().mergeSortedFiles(inputPaths(inputs), OUTPUT.toString());
+
+        assertEquals(concatenation.size(), count);
+        assertEquals(NameCorpus.sorted(concatenation), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testMoreInputsThanOpenFileLimit() throws IOException {
+        final List<Path> inputs = new ArrayList<>();
+        final List<String> concatenation = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final List<String> names = NameCorpus.sorted(NameCorpus.randomNames(200, i));
+            final Path input = NameCorpus.write(MERGE_DIR.resolve("sorted-" + i + ".txt"), names);
+            generatedFiles.add(input);
+            inputs.add(input);
+            concatenation.addAll(names);
+        }
+
+        final SortedFileMergeService service = new SortedFileMergeService();
+        service.setMaxOpenFiles(4); // forces three merge passes
+
+        service.mergeSortedFiles(inputPaths(inputs), OUTPUT.toString());
+
+        assertEquals(NameCorpus.sorted(concatenation), Files.readAllLines(OUTPUT));
+    }
+
+    @Test
+    void testUnsortedInputIsRejected() throws IOException {
+        final Path unsorted = TEMPLATE_DIR.resolve("input-6.txt");
+        final SortedFileMergeService service = new SortedFileMergeService();
+
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> service.mergeSortedFiles(List.of(unsorted.toString()), OUTPUT.toString()));
+        assertTrue(e.getMessage().contains("not sorted"), "Unexpected message: " + e.getMessage());
+
+        // without verification, the file is merged as-is
+        service.setVerifySorted(false);
+        service.mergeSortedFiles(List.of(unsorted.toString()), OUTPUT.toString());
+        assertEquals(Files.readAllLines(unsorted).stream().filter(line -> !line.isBlank()).toList(),
+            Files.readAllLines(OUTPUT));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.model.BurstTrie;
+import com.example.dd.nameSorter.model.IterativeBinarySearchTree;
+import com.example.dd.nameSorter.model.Name;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares throughput (names/s) and retained heap of the in-memory sorting structures on the generated corpora.
+ * Excluded from the regular build; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class SortingEngineBenchmarkTests {
+
+    private static final int CORPUS_SIZE = 500_000;
+
+    private static final int ROUNDS = 5; // the first rounds warm up the JIT, the best round is reported
+
+    private static void benchmark(String corpusName, List<String> corpus) {
+        report(corpusName, "IterativeBinarySearchTree", corpus, names -> {
+            final IterativeBinarySearchTree<Name> tree = new IterativeBinarySearchTree<>();
+            names.forEach(tree::insert);
+            return new Object[]{tree, tree.traverseInOrder()};
+        });
+        report(corpusName, "BurstTrie", corpus, names -> {
+            final BurstTrie trie = new BurstTrie();
+            names.forEach(trie::add);
+            return new Object[]{trie, trie.sortedNames()};
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void report(String corpusName, String structure, List<String> corpus, Function<List<Name>, Object[]> sort) {
+
+        long bestNanos = Long.MAX_VALUE;
+        long retainedBytes = 0;
+        List<Name> sorted = null;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final long baseline = usedHeap();
+            final List<Name> names = corpus.stream().map(Name::new).toList();
+
+            final long start = System.nanoTime();
+            final Object[] result = sort.apply(names);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+
+            // heap held by the names and the structure, measured while both are still reachable
+            retainedBytes = usedHeap() - baseline;
+            sorted = (List<Name>) result[1];
+            assertNotNull(result[0]);
+        }
+
+        assertEquals(NameCorpus.sorted(corpus), sorted.stream().map(Name::toString).toList());
+        System.out.printf("BENCHMARK %-10s %-26s %,12.0f names/s %,8d KB retained%n",
+            corpusName, structure, corpus.size() * 1e9 / bestNanos, retainedBytes / 1024);
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    void benchmarkRandomNames() {
+        benchmark("random", NameCorpus.randomNames(CORPUS_SIZE, 40));
+    }
+
+    @Test
+    void benchmarkRepeatedNames() {
+        benchmark("repeated", NameCorpus.duplicatedNames(CORPUS_SIZE, 2_000, 41));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.SpoolDirectoryWatchService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpoolDirectoryWatchServiceTests {
+
+    private static final Path WATCH_DIR = Path.of("files/watch");
+    private static final Path SPOOL_DIR = WATCH_DIR.resolve("spool");
+    private static final Path SORTED_DIR = WATCH_DIR.resolve("sorted");
+
+    private static final long TIMEOUT_MILLIS = 20_000;
+
+    private SpoolDirectoryWatchService service;
+
+    private Thread watcher;
+
+    @BeforeEach
+    void startWatching() {
+        service = new SpoolDirectoryWatchService();
+        service.setFileContentSortingEvaluationService(new CollectionNameSortingService());
+        service.setInputDir(SPOOL_DIR.toString());
+        service.setOutputDir(SORTED_DIR.toString());
+        service.setWorkers(2);
+        service.setQueueCapacity(1);
+        service.setStableMillis(200);
+    }
+
+    @AfterEach
+    void stopWatching() throws Exception {
+        service.stop();
+        if (watcher != null) {
+            watcher.join(TIMEOUT_MILLIS);
+        }
+        NameCorpus.deleteRecursively(WATCH_DIR);
+    }
+
+    private void watchInBackground() {
+        watcher = new Thread(service::watch, "spool-watcher-test");
+        watcher.start();
+    }
+
+    private static void awaitFile(Path path) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!Files.isRegularFile(path)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + path);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void testFilesAreSortedOnceStable() throws Exception {
+        // dropped before watching starts, so it is found by the initial scan
+        final List<String> early = NameCorpus.randomNames(500, 1);
+        NameCorpus.write(SPOOL_DIR.resolve("early.txt"), early);
+
+        watchInBackground();
+
+        // more files than workers and queue slots together, to go through backpressure
+        for (int i = 0; i < 6; i++) {
+            NameCorpus.write(SPOOL_DIR.resolve("late-" + i + ".txt"), NameCorpus.randomNames(500, 10 + i));
+        }
+
+        awaitFile(SPOOL_DIR.resolve("processed").resolve("early.txt"));
+        for (int i = 0; i < 6; i++) {
+            awaitFile(SPOOL_DIR.resolve("processed").resolve("late-" + i + ".txt"));
+        }
+
+        assertEquals(NameCorpus.sorted(early), Files.readAllLines(SORTED_DIR.resolve("early.txt")));
+        assertEquals(NameCorpus.sorted(NameCorpus.randomNames(500, 15)), Files.readAllLines(SORTED_DIR.resolve("late-5.txt")));
+
+        // watch() returns once the files being sorted are done, so the statistics are final
+        service.stop();
+        watcher.join(TIMEOUT_MILLIS);
+        final SpoolDirectoryWatchService.WatchStatistics statistics = service.getStatistics();
+        assertEquals(7, statistics.filesSorted());
+        assertEquals(0, statistics.filesFailed());
+        assertTrue(statistics.maxLatencyMillis() >= 200, "Files cannot be complete before they are stable: " + statistics);
+    }
+
+    @Test
+    void testMarkerFileCompletesFile() throws Exception {
+        service.setMarkerSuffix(".done");
+        service.setStableMillis(50);
+        watchInBackground();
+
+        final List<String> names = NameCorpus.randomNames(300, 2);
+        NameCorpus.write(SPOOL_DIR.resolve("marked.txt"), names);
+        Thread.sleep(500);
+        assertFalse(Files.exists(SORTED_DIR.resolve("marked.txt")), "File should wait for its marker.");
+
+        Files.createFile(SPOOL_DIR.resolve("marked.txt.done"));
+        awaitFile(SPOOL_DIR.resolve("processed").resolve("marked.txt"));
+
+        assertEquals(NameCorpus.sorted(names), Files.readAllLines(SORTED_DIR.resolve("marked.txt")));
+        assertFalse(Files.exists(SPOOL_DIR.resolve("marked.txt.done")), "Marker should be removed.");
+    }
+}
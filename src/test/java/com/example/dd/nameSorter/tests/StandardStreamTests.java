@@ -0,0 +1,138 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.CommandLineApplication;
+import com.example.dd.nameSorter.service.AdaptiveNameSortingService;
+import com.example.dd.nameSorter.service.CollectionNameSortingService;
+import com.example.dd.nameSorter.service.FileContentSortingEvaluationService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StandardStreamTests {
+
+    private static final String STANDARD_STREAM = FileContentSortingEvaluationService.STANDARD_STREAM;
+
+    private final ByteArrayOutputStream standardOutput = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream systemOut = new ByteArrayOutputStream();
+
+    private InputStream originalIn;
+
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void redirectStreams() {
+        originalIn = System.in;
+        originalOut = System.out;
+        System.setOut(new PrintStream(systemOut, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    void restoreStreams() {
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+    }
+
+    private static void feedStandardInput(List<String> lines) {
+        System.setIn(new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private List<String> standardOutputLines() {
+        final String output = standardOutput.toString(StandardCharsets.UTF_8);
+        return output.isEmpty() ? List.of() : Arrays.asList(output.split(System.lineSeparator()));
+    }
+
+    @Test
+    void testSortsStandardInputToStandardOutput() {
+        final List<String> names = NameCorpus.randomNames(2_000, 35);
+        feedStandardInput(names);
+
+        final CollectionNameSortingService service = new CollectionNameSortingService() {
+            @Override
+            protected OutputStream openStandardOutput() {
+                return standardOutput;
+            }
+        };
+        service.setRejectedRecordsDir("");
+        service.sortNamesInFile(STANDARD_STREAM, STANDARD_STREAM);
+
+        assertEquals(NameCorpus.sorted(names), standardOutputLines());
+        assertEquals("", systemOut.toString(StandardCharsets.UTF_8), "Nothing but the sorted names may reach standard output.");
+    }
+
+    @Test
+    void testStandardOutputStaysOpenAfterSorting() {
+        final CollectionNameSortingService service = new CollectionNameSortingService(); // on the real file descriptor
+        service.setRejectedRecordsDir("");
+
+        for (int sort = 0; sort < 2; sort++) {
+            feedStandardInput(List.of("Vaughn Lewis", "Janet Parsons"));
+            service.sortNamesInFile(STANDARD_STREAM, STANDARD_STREAM);
+            assertTrue(FileDescriptor.out.valid(), "Standard output was closed by sort " + (sort + 1));
+        }
+    }
+
+    @Test
+    void testMalformedStandardInputFailsLikeFiles() {
+        final ByteArrayOutputStream input = new ByteArrayOutputStream();
+        input.writeBytes("Janet Parsons\n".getBytes(StandardCharsets.UTF_8));
+        input.writeBytes(new byte[]{'J', 'o', (byte) 0xC3, '(', ' ', 'S', 'm', 'i', 't', 'h', '\n'}); // 0xC3 starts a 2-byte sequence
+        System.setIn(new ByteArrayInputStream(input.toByteArray()));
+
+        final CollectionNameSortingService service = new CollectionNameSortingService() {
+            @Override
+            protected OutputStream openStandardOutput() {
+                return standardOutput;
+            }
+        };
+        service.setRejectedRecordsDir("");
+
+        final RuntimeException e = assertThrows(RuntimeException.class, () -> service.sortNamesInFile(STANDARD_STREAM, STANDARD_STREAM));
+        assertTrue(e.getCause() instanceof CharacterCodingException, e.toString());
+        assertEquals("", standardOutput.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testAdaptiveServiceDoesNotSampleStandardInput() {
+        final AdaptiveNameSortingService service = new AdaptiveNameSortingService();
+        assertEquals(AdaptiveNameSortingService.BINARY_TREE, service.selectEngine(STANDARD_STREAM));
+    }
+
+    @Test
+    void testRowsCannotBeReadFromStandardInput() {
+        feedStandardInput(List.of("1,Janet Parsons"));
+
+        final CollectionNameSortingService service = new CollectionNameSortingService();
+        service.setRowDelimiter(",");
+        service.setNameColumn(1);
+
+        assertThrows(IllegalArgumentException.class, () -> service.sortNamesInFile(STANDARD_STREAM, STANDARD_STREAM));
+    }
+
+    @Test
+    void testStandardOutputIsResolvedFromPathArgumentsAndProperties() {
+        final String configured = "files/sorted-names-list.txt";
+        assertTrue(CommandLineApplication.writesToStandardOutput(new String[]{"files/input.txt", STANDARD_STREAM}, configured));
+        assertFalse(CommandLineApplication.writesToStandardOutput(new String[]{STANDARD_STREAM, "files/output.txt"}, configured),
+            "Only the input is standard input.");
+
+        // option arguments and configuration files reach the application as the resolved property
+        assertTrue(CommandLineApplication.writesToStandardOutput(new String[]{"--app.output.file=" + STANDARD_STREAM}, STANDARD_STREAM));
+        assertTrue(CommandLineApplication.writesToStandardOutput(new String[]{"files/input.txt"}, STANDARD_STREAM));
+        assertFalse(CommandLineApplication.writesToStandardOutput(new String[]{"files/input.txt", "files/output.txt"}, STANDARD_STREAM),
+            "Path arguments override the property.");
+        assertFalse(CommandLineApplication.writesToStandardOutput(new String[]{}, null));
+    }
+}
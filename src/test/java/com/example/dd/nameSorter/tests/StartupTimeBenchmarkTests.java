@@ -0,0 +1,104 @@
+package com.example.dd.nameSorter.tests;
+
+import com.example.dd.nameSorter.CommandLineApplication;
+import com.example.dd.nameSorter.LeanCommandLineApplication;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the time-to-first-output of the Spring Boot and the lean launchers: every run starts a new JVM that
+ * sorts a file to standard output, and the time from starting the process to the first sorted byte is reported,
+ * along with the time until the process exits. Tracks startup regressions; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+public class StartupTimeBenchmarkTests {
+
+    private static final Path BENCHMARK_DIR = Path.of("files/startup-benchmark");
+
+    private static final int ROUNDS = 3; // the best round is reported, filtering out disk cache misses
+
+    @AfterAll
+    static void deleteFiles() throws IOException {
+        if (Files.exists(BENCHMARK_DIR)) {
+            try (var paths = Files.list(BENCHMARK_DIR)) {
+                for (Path path : paths.toList()) {
+                    Files.delete(path);
+                }
+            }
+            Files.delete(BENCHMARK_DIR);
+        }
+    }
+
+    private static void benchmark(String fileName, int count) throws IOException, InterruptedException {
+        final Path input = BENCHMARK_DIR.resolve(fileName);
+        NameCorpus.write(input, NameCorpus.randomNames(count, 39));
+
+        report(fileName, CommandLineApplication.class, input, count);
+        report(fileName, LeanCommandLineApplication.class, input, count);
+    }
+
+    private static void report(String fileName, Class<?> mainClass, Path input, int count) throws IOException, InterruptedException {
+
+        long bestFirstOutputNanos = Long.MAX_VALUE;
+        long bestTotalNanos = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final ProcessBuilder processBuilder = new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                mainClass.getName(), input.toString(), "-")
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+
+            final long start = System.nanoTime();
+            final Process process = processBuilder.start();
+            long firstOutputNanos = 0;
+            long lines = 0;
+
+            try (InputStream output = process.getInputStream()) {
+                final int firstByte = output.read();
+                firstOutputNanos = System.nanoTime() - start;
+                assertNotEquals(-1, firstByte, mainClass.getSimpleName() + " wrote nothing");
+
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8));
+                while (reader.readLine() != null) {
+                    lines++;
+                }
+            }
+            assertEquals(0, process.waitFor());
+            final long totalNanos = System.nanoTime() - start;
+
+            assertEquals(count, lines, mainClass.getSimpleName() + " did not write every name");
+            bestFirstOutputNanos = Math.min(bestFirstOutputNanos, firstOutputNanos);
+            bestTotalNanos = Math.min(bestTotalNanos, totalNanos);
+        }
+
+        System.out.printf("BENCHMARK %-10s %-28s %,8d ms to first output %,8d ms total%n",
+            fileName, mainClass.getSimpleName(), bestFirstOutputNanos / 1_000_000, bestTotalNanos / 1_000_000);
+    }
+
+    @Test
+    void benchmarkTinyFile() throws IOException, InterruptedException {
+        benchmark("tiny.txt", 5);
+    }
+
+    @Test
+    void benchmark1KFile() throws IOException, InterruptedException {
+        benchmark("1k.txt", 1_000);
+    }
+
+    @Test
+    void benchmark1MFile() throws IOException, InterruptedException {
+        benchmark("1m.txt", 1_000_000);
+    }
+}
@@ -8,9 +8,14 @@ Feature: Name Sorting Core
 
   Scenario Outline: Validate Sorting Logic and Error Handling Across Implementations
     Given the following services are implemented:
-      | serviceName                  | serviceAlias |
-      | BinaryTreeNameSortingService | binaryTree   |
-      | CollectionNameSortingService | collection   |
+      | serviceName                          | serviceAlias     |
+      | BinaryTreeNameSortingService         | binaryTree       |
+      | CollectionNameSortingService         | collection       |
+      | RangePartitionedNameSortingService   | rangePartitioned |
+      | DictionaryEncodedNameSortingService  | dictionary       |
+      | AdaptiveNameSortingService           | auto             |
+      | BurstTrieNameSortingService          | burstTrie        |
+      | ConcurrentSkipListNameSortingService | concurrent       |
     And the input file "input-<caseId>.txt" and expected output file "output-<caseId>-expected.txt" are prepared
     When the sorting logic is executed for all services
     Then the output files "output-<caseId>-<serviceAlias>.txt" should be created with content matching "output-<caseId>-expected.txt"
@@ -22,4 +27,6 @@ Feature: Name Sorting Core
       | 3      | Missing Given names (Skip line and Write Warn logs)   |
       | 4      | Duplicated entries are preserved                      |
       | 5      | Sorting order is case insensitive                     |
-      | 6      | Volume Test > 1000 records generated by AI            |
\ No newline at end of file
+      | 6      | Volume Test > 1000 records generated by AI            |
+      | 7      | Already sorted input is passed through                |
+      | 8      | Nearly sorted input with a few displaced entries      |
\ No newline at end of file